@@ -0,0 +1,132 @@
+package com.jms.spotifyplaylistauth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Configuration of how request handling and blocking upstream calls are executed.
+ * With spring.threads.virtual.enabled=true Spring Boot runs Tomcat request handling
+ * on virtual threads, and the blocking Spotify/JMS calls made from reactive chains
+ * run on a virtual-thread scheduler instead of the bounded elastic pool.
+ */
+@Configuration
+public class ExecutionConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    /**
+     * Scheduler for blocking calls (file reads, JMS lookups) made from reactive chains
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingCallScheduler() {
+        if (virtualThreadsEnabled) {
+            logger.info("Virtual-thread execution mode enabled for request handling and blocking upstream calls");
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "virtual-blocking");
+        }
+        logger.info("Platform-thread execution mode (set spring.threads.virtual.enabled=true for virtual threads)");
+        return Schedulers.newBoundedElastic(
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "blocking-calls");
+    }
+
+    @Bean
+    public RequestConcurrencyTracker requestConcurrencyTracker() {
+        return new RequestConcurrencyTracker(virtualThreadsEnabled);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestConcurrencyTracker> requestConcurrencyTrackerFilter(RequestConcurrencyTracker tracker) {
+        FilterRegistrationBean<RequestConcurrencyTracker> bean = new FilterRegistrationBean<>();
+        bean.setFilter(tracker);
+        bean.addUrlPatterns("/whatsapp/upload", "/api/whatsapp/*", "/api/playlists/export", "/api/playlists/export/*");
+        return bean;
+    }
+
+    /**
+     * Filter that counts in-flight uploads and exports and remembers the peak,
+     * so the maximum concurrency per instance can be compared with the
+     * execution mode on and off.
+     */
+    public static class RequestConcurrencyTracker implements Filter {
+        private final boolean virtualThreads;
+        private final AtomicInteger inFlightUploads = new AtomicInteger();
+        private final AtomicInteger peakUploads = new AtomicInteger();
+        private final AtomicInteger inFlightExports = new AtomicInteger();
+        private final AtomicInteger peakExports = new AtomicInteger();
+        private final AtomicLong completedRequests = new AtomicLong();
+
+        public RequestConcurrencyTracker(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            String path = ((HttpServletRequest) request).getRequestURI();
+            boolean export = path.contains("/export");
+            AtomicInteger inFlight = export ? inFlightExports : inFlightUploads;
+            AtomicInteger peak = export ? peakExports : peakUploads;
+
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (request.isAsyncStarted()) {
+                    // Handlers returning a Mono finish later; count them until the async request completes
+                    request.getAsyncContext().addListener(new AsyncListener() {
+                        @Override
+                        public void onComplete(AsyncEvent event) {
+                            finish(inFlight);
+                        }
+
+                        @Override
+                        public void onTimeout(AsyncEvent event) {
+                        }
+
+                        @Override
+                        public void onError(AsyncEvent event) {
+                        }
+
+                        @Override
+                        public void onStartAsync(AsyncEvent event) {
+                        }
+                    });
+                } else {
+                    finish(inFlight);
+                }
+            }
+        }
+
+        private void finish(AtomicInteger inFlight) {
+            inFlight.decrementAndGet();
+            completedRequests.incrementAndGet();
+        }
+
+        public Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("executionMode", virtualThreads ? "virtual-threads" : "platform-threads");
+            stats.put("inFlightUploads", inFlightUploads.get());
+            stats.put("peakConcurrentUploads", peakUploads.get());
+            stats.put("inFlightExports", inFlightExports.get());
+            stats.put("peakConcurrentExports", peakExports.get());
+            stats.put("completedRequests", completedRequests.get());
+            return stats;
+        }
+    }
+}
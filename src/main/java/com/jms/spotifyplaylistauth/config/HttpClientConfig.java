@@ -0,0 +1,192 @@
+package com.jms.spotifyplaylistauth.config;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reactor Netty connection pools for the upstream hosts.
+ * api.spotify.com and accounts.spotify.com get separate pools with their own
+ * limits inside the "spotify" provider, and the JMS website has its own
+ * "jms-website" provider. Pool usage (active, idle, pending) is recorded by
+ * {@link PoolMetricsRegistry}.
+ */
+@Configuration
+public class HttpClientConfig {
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientConfig.class);
+
+    // api.spotify.com - playlist reads and writes
+    @Value("${spotify.http.api.max-connections:50}")
+    private int spotifyApiMaxConnections;
+
+    @Value("${spotify.http.api.pending-acquire-max:500}")
+    private int spotifyApiPendingAcquireMax;
+
+    // accounts.spotify.com - token exchange only, so a small pool is enough
+    @Value("${spotify.http.accounts.max-connections:10}")
+    private int spotifyAccountsMaxConnections;
+
+    @Value("${spotify.http.accounts.pending-acquire-max:100}")
+    private int spotifyAccountsPendingAcquireMax;
+
+    @Value("${spotify.http.pending-acquire-timeout-ms:10000}")
+    private long spotifyPendingAcquireTimeoutMs;
+
+    @Value("${spotify.http.connect-timeout-ms:5000}")
+    private int spotifyConnectTimeoutMs;
+
+    @Value("${spotify.http.read-timeout-ms:20000}")
+    private long spotifyReadTimeoutMs;
+
+    @Value("${spotify.http.http2-enabled:true}")
+    private boolean spotifyHttp2Enabled;
+
+    // JMS website, API and backup sources
+    @Value("${jms.http.max-connections:10}")
+    private int jmsMaxConnections;
+
+    @Value("${jms.http.pending-acquire-max:100}")
+    private int jmsPendingAcquireMax;
+
+    @Value("${jms.http.pending-acquire-timeout-ms:10000}")
+    private long jmsPendingAcquireTimeoutMs;
+
+    @Value("${jms.http.connect-timeout-ms:5000}")
+    private int jmsConnectTimeoutMs;
+
+    @Value("${jms.http.read-timeout-ms:30000}")
+    private long jmsReadTimeoutMs;
+
+    @Value("${jms.http.wiretap:false}")
+    private boolean jmsWiretap;
+
+    // Shared idle handling - close connections before the servers drop them
+    @Value("${http.pool.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${http.pool.max-life-time-ms:300000}")
+    private long maxLifeTimeMs;
+
+    @Value("${http.pool.evict-interval-ms:30000}")
+    private long evictIntervalMs;
+
+    @Bean
+    public PoolMetricsRegistry poolMetricsRegistry() {
+        return new PoolMetricsRegistry();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider spotifyConnectionProvider(PoolMetricsRegistry poolMetricsRegistry) {
+        return ConnectionProvider.builder("spotify")
+                .maxConnections(spotifyApiMaxConnections)
+                .pendingAcquireMaxCount(spotifyApiPendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(spotifyPendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(evictIntervalMs))
+                .forRemoteHost(InetSocketAddress.createUnresolved("accounts.spotify.com", 443), spec -> spec
+                        .maxConnections(spotifyAccountsMaxConnections)
+                        .pendingAcquireMaxCount(spotifyAccountsPendingAcquireMax)
+                        .pendingAcquireTimeout(Duration.ofMillis(spotifyPendingAcquireTimeoutMs)))
+                .metrics(true, () -> poolMetricsRegistry)
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider jmsConnectionProvider(PoolMetricsRegistry poolMetricsRegistry) {
+        return ConnectionProvider.builder("jms-website")
+                .maxConnections(jmsMaxConnections)
+                .pendingAcquireMaxCount(jmsPendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(jmsPendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(evictIntervalMs))
+                .metrics(true, () -> poolMetricsRegistry)
+                .build();
+    }
+
+    @Bean
+    public HttpClient spotifyHttpClient(@Qualifier("spotifyConnectionProvider") ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, spotifyConnectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                // Per request, so idle pooled connections are left alone
+                .responseTimeout(Duration.ofMillis(spotifyReadTimeoutMs));
+
+        if (spotifyHttp2Enabled) {
+            // Negotiated through ALPN; falls back to HTTP/1.1 if the server does not offer h2
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        logger.info("Spotify HTTP client: api max {} / accounts max {} connections, HTTP/2 {}",
+                spotifyApiMaxConnections, spotifyAccountsMaxConnections, spotifyHttp2Enabled ? "enabled" : "disabled");
+        return httpClient;
+    }
+
+    @Bean
+    public HttpClient jmsHttpClient(@Qualifier("jmsConnectionProvider") ConnectionProvider connectionProvider) {
+        logger.info("JMS HTTP client: max {} connections, wiretap {}", jmsMaxConnections, jmsWiretap);
+        return HttpClient.create(connectionProvider)
+                .followRedirect(true)
+                .keepAlive(true)
+                .wiretap(jmsWiretap)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, jmsConnectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(jmsReadTimeoutMs));
+    }
+
+    /**
+     * Collects the pool metrics Reactor Netty publishes for each pool and remote address
+     */
+    public static class PoolMetricsRegistry implements ConnectionProvider.MeterRegistrar {
+        private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+            pools.put(key(poolName, remoteAddress), metrics);
+        }
+
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            pools.remove(key(poolName, remoteAddress));
+        }
+
+        private String key(String poolName, SocketAddress remoteAddress) {
+            return poolName + " -> " + remoteAddress;
+        }
+
+        /**
+         * Active, idle and pending counts for every pool that has opened connections
+         */
+        public Map<String, Object> getStats() {
+            Map<String, Object> stats = new TreeMap<>();
+            pools.forEach((name, metrics) -> {
+                Map<String, Object> pool = new LinkedHashMap<>();
+                pool.put("active", metrics.acquiredSize());
+                pool.put("idle", metrics.idleSize());
+                pool.put("allocated", metrics.allocatedSize());
+                pool.put("pending", metrics.pendingAcquireSize());
+                pool.put("maxConnections", metrics.maxAllocatedSize());
+                pool.put("maxPending", metrics.maxPendingAcquireSize());
+                stats.put(name, pool);
+            });
+            return stats;
+        }
+    }
+}
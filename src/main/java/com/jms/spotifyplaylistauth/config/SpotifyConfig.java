@@ -1,11 +1,16 @@
 package com.jms.spotifyplaylistauth.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
 
 import jakarta.annotation.PostConstruct;
 
@@ -25,6 +30,21 @@ public class SpotifyConfig {
     @Value("${spotify.jms.callback-url}")
     private String jmsCallbackUrl;
 
+    // Spotify caps /v1/me/playlists at 50 items per page
+    @Value("${spotify.api.playlist-page-size:50}")
+    private int playlistPageSize;
+
+    // Maximum number of offset pages requested from Spotify at the same time
+    @Value("${spotify.api.playlist-fetch-concurrency:4}")
+    private int playlistFetchConcurrency;
+
+    // Per-user playlist catalog cache
+    @Value("${spotify.cache.playlist-ttl-seconds:300}")
+    private long playlistCacheTtlSeconds;
+
+    @Value("${spotify.cache.playlist-max-users:200}")
+    private int playlistCacheMaxUsers;
+
     @PostConstruct
     public void init() {
         if (clientId == null || clientId.equals("${SPOTIFY_CLIENT_ID}") || clientId.isEmpty()) {
@@ -39,8 +59,15 @@ public class SpotifyConfig {
     }
 
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public WebClient webClient(SpotifyRateGovernor spotifyRateGovernor,
+                               @Qualifier("spotifyHttpClient") HttpClient spotifyHttpClient,
+                               ObjectMapper objectMapper) {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(spotifyHttpClient))
+                // Responses are decoded with the application's shared mapper (JacksonConfig)
+                .codecs(configurer -> configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper)))
+                .filter(spotifyRateGovernor)
+                .build();
     }
 
     public String getClientId() {
@@ -75,4 +102,20 @@ public class SpotifyConfig {
     public String getJmsCallbackUrl() {
         return jmsCallbackUrl;
     }
+
+    public int getPlaylistPageSize() {
+        return Math.max(1, Math.min(50, playlistPageSize));
+    }
+
+    public int getPlaylistFetchConcurrency() {
+        return Math.max(1, playlistFetchConcurrency);
+    }
+
+    public long getPlaylistCacheTtlSeconds() {
+        return playlistCacheTtlSeconds;
+    }
+
+    public int getPlaylistCacheMaxUsers() {
+        return playlistCacheMaxUsers;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.jms.spotifyplaylistauth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * WebClient filter that paces all outbound Spotify traffic.
+ * Every request takes a token from a global bucket and from a bucket for its
+ * access token; when either is empty the request is delayed rather than sent.
+ * A 429 reply pauses all Spotify traffic for the Retry-After period and the
+ * request is sent again once the pause is over.
+ */
+@Component
+public class SpotifyRateGovernor implements ExchangeFilterFunction {
+    private static final Logger logger = LoggerFactory.getLogger(SpotifyRateGovernor.class);
+
+    private static final long IDLE_BUCKET_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int BUCKET_SWEEP_THRESHOLD = 500;
+
+    private final TokenBucket globalBucket;
+    private final double perTokenRate;
+    private final double perTokenBurst;
+    private final int maxRetries;
+
+    private final Map<String, TokenBucket> tokenBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong pausedUntilNanos = new AtomicLong();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private final AtomicLong throttleWaitMillis = new AtomicLong();
+    private final AtomicLong rateLimitedResponses = new AtomicLong();
+
+    public SpotifyRateGovernor(
+            @Value("${spotify.rate.global-per-second:20}") double globalRate,
+            @Value("${spotify.rate.global-burst:40}") double globalBurst,
+            @Value("${spotify.rate.per-token-per-second:5}") double perTokenRate,
+            @Value("${spotify.rate.per-token-burst:10}") double perTokenBurst,
+            @Value("${spotify.rate.max-retries:3}") int maxRetries) {
+        this.globalBucket = new TokenBucket(globalRate, globalBurst);
+        this.perTokenRate = perTokenRate;
+        this.perTokenBurst = perTokenBurst;
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String host = request.url().getHost();
+        if (host == null || !host.endsWith("spotify.com")) {
+            return next.exchange(request);
+        }
+        return governedExchange(request, next, 0);
+    }
+
+    private Mono<ClientResponse> governedExchange(ClientRequest request, ExchangeFunction next, int attempt) {
+        return Mono.defer(() -> {
+            requests.incrementAndGet();
+            long waitNanos = reserve(request);
+            if (waitNanos <= 0) {
+                return next.exchange(request);
+            }
+
+            long waitMillis = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+            throttledRequests.incrementAndGet();
+            throttleWaitMillis.addAndGet(waitMillis);
+            int depth = queueDepth.incrementAndGet();
+            maxQueueDepth.accumulateAndGet(depth, Math::max);
+            logger.debug("Delaying {} {} by {} ms (queue depth {})", request.method(), request.url().getPath(), waitMillis, depth);
+
+            return Mono.delay(Duration.ofNanos(waitNanos))
+                    .doFinally(signal -> queueDepth.decrementAndGet())
+                    .then(Mono.defer(() -> next.exchange(request)));
+        }).flatMap(response -> {
+            if (response.statusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value() || attempt >= maxRetries) {
+                return Mono.just(response);
+            }
+            rateLimitedResponses.incrementAndGet();
+            Duration retryAfter = parseRetryAfter(response.headers().asHttpHeaders());
+            pausedUntilNanos.accumulateAndGet(System.nanoTime() + retryAfter.toNanos(), Math::max);
+            logger.warn("Spotify returned 429 for {} {}, pausing Spotify traffic for {} ms (attempt {})",
+                    request.method(), request.url().getPath(), retryAfter.toMillis(), attempt + 1);
+            return response.releaseBody().then(governedExchange(request, next, attempt + 1));
+        });
+    }
+
+    /**
+     * Reserve a token from the global and per-token buckets.
+     * @return nanoseconds to wait before the request may be sent
+     */
+    private long reserve(ClientRequest request) {
+        long now = System.nanoTime();
+        long wait = Math.max(0, pausedUntilNanos.get() - now);
+        wait = Math.max(wait, globalBucket.reserve(now));
+
+        String authorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null) {
+            if (tokenBuckets.size() > BUCKET_SWEEP_THRESHOLD) {
+                tokenBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+            }
+            TokenBucket bucket = tokenBuckets.computeIfAbsent(authorization, k -> new TokenBucket(perTokenRate, perTokenBurst));
+            wait = Math.max(wait, bucket.reserve(now));
+        }
+        return wait;
+    }
+
+    private Duration parseRetryAfter(HttpHeaders headers) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return Duration.ofSeconds(Math.max(1, Long.parseLong(retryAfter.trim())));
+            } catch (NumberFormatException e) {
+                logger.debug("Unparseable Retry-After header: {}", retryAfter);
+            }
+        }
+        return Duration.ofSeconds(1);
+    }
+
+    /**
+     * Queue depth and throttle-wait counters, to see when bulk jobs saturate the quota
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("queueDepth", queueDepth.get());
+        stats.put("maxQueueDepth", maxQueueDepth.get());
+        stats.put("throttledRequests", throttledRequests.get());
+        stats.put("throttleWaitMillis", throttleWaitMillis.get());
+        stats.put("rateLimitedResponses", rateLimitedResponses.get());
+        stats.put("trackedTokens", tokenBuckets.size());
+        stats.put("pausedForMillis", Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos.get() - System.nanoTime())));
+        return stats;
+    }
+
+    /**
+     * Token bucket that lets callers reserve tokens ahead of time.
+     * The balance may go negative; the deficit is how long the caller has to wait.
+     */
+    private static class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+        private volatile long lastUsed;
+        // Not synchronized, so request handling on virtual threads is never pinned here
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private TokenBucket(double tokensPerSecond, double capacity) {
+            this.tokensPerNano = Math.max(tokensPerSecond, 0.001) / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(capacity, 1);
+            this.tokens = this.capacity;
+            this.lastRefill = System.nanoTime();
+            this.lastUsed = lastRefill;
+        }
+
+        private long reserve(long now) {
+            lock.lock();
+            try {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+                lastUsed = now;
+                tokens -= 1;
+                return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isIdle(long now) {
+            return now - lastUsed > IDLE_BUCKET_NANOS;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.jms.spotifyplaylistauth.controller;
 
 import com.jms.spotifyplaylistauth.config.SpotifyConfig;
+import com.jms.spotifyplaylistauth.service.PlaylistNameScanComparison;
+import com.jms.spotifyplaylistauth.service.SpotifyProjectionReport;
+import com.jms.spotifyplaylistauth.service.whatsapp.WhatsAppHeaderScanComparison;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +14,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,8 +27,13 @@ import java.util.Map;
 @Profile({"dev", "test"})
 public class DebugController {
     private static final Logger logger = LoggerFactory.getLogger(DebugController.class);
+
+    // Upper bounds for the scanner benchmarks, so one call cannot tie up a core for long
+    private static final int MAX_BENCHMARK_ENTRIES = 20_000;
+    private static final int MAX_BENCHMARK_ROUNDS = 50;
     
     private final SpotifyConfig spotifyConfig;
+    private final SpotifyProjectionReport spotifyProjectionReport;
     
     @Value("${jms.website.playlists-url}")
     private String jmsPlaylistsUrl;
@@ -36,8 +45,9 @@ public class DebugController {
     private boolean useApiFirst;
     
     @Autowired
-    public DebugController(SpotifyConfig spotifyConfig) {
+    public DebugController(SpotifyConfig spotifyConfig, SpotifyProjectionReport spotifyProjectionReport) {
         this.spotifyConfig = spotifyConfig;
+        this.spotifyProjectionReport = spotifyProjectionReport;
     }
     
     @GetMapping("/spotify-config")
@@ -76,6 +86,43 @@ public class DebugController {
         return "cleanup-playlists";
     }
     
+    /**
+     * Before/after payload sizes of each Spotify field projection profile
+     */
+    @GetMapping("/projection-report")
+    @ResponseBody
+    public Map<String, Object> getProjectionReport(
+            @RequestParam String accessToken,
+            @RequestParam(required = false) String playlistId) {
+        return spotifyProjectionReport.measure(accessToken, playlistId);
+    }
+    
+    /**
+     * Time the single-pass playlist name scanner against the old six-regex extraction
+     */
+    @GetMapping("/html-scanner-comparison")
+    @ResponseBody
+    public Map<String, Object> compareHtmlScanners(
+            @RequestParam(defaultValue = "5000") int entries,
+            @RequestParam(defaultValue = "20") int rounds) {
+        return PlaylistNameScanComparison.compare(bounded(entries, MAX_BENCHMARK_ENTRIES), bounded(rounds, MAX_BENCHMARK_ROUNDS));
+    }
+    
+    /**
+     * Time the hand-written WhatsApp header scanner against the old MESSAGE_PATTERN regex
+     */
+    @GetMapping("/whatsapp-header-scanner-comparison")
+    @ResponseBody
+    public Map<String, Object> compareWhatsAppHeaderScanners(
+            @RequestParam(defaultValue = "20000") int lines,
+            @RequestParam(defaultValue = "20") int rounds) {
+        return WhatsAppHeaderScanComparison.compare(bounded(lines, MAX_BENCHMARK_ENTRIES), bounded(rounds, MAX_BENCHMARK_ROUNDS));
+    }
+    
+    private static int bounded(int value, int max) {
+        return Math.max(1, Math.min(value, max));
+    }
+    
     /**
      * Mask sensitive strings to show only first and last few characters
      */
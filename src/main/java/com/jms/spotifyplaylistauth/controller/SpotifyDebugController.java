@@ -1,6 +1,10 @@
 package com.jms.spotifyplaylistauth.controller;
 
+import com.jms.spotifyplaylistauth.config.ExecutionConfig;
+import com.jms.spotifyplaylistauth.config.HttpClientConfig;
 import com.jms.spotifyplaylistauth.config.SpotifyConfig;
+import com.jms.spotifyplaylistauth.config.SpotifyRateGovernor;
+import com.jms.spotifyplaylistauth.service.JmsWebsiteService;
 import com.jms.spotifyplaylistauth.service.SpotifyPlaylistService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,11 +25,23 @@ public class SpotifyDebugController {
 
     private final SpotifyConfig spotifyConfig;
     private final SpotifyPlaylistService spotifyPlaylistService;
+    private final SpotifyRateGovernor spotifyRateGovernor;
+    private final ExecutionConfig.RequestConcurrencyTracker requestConcurrencyTracker;
+    private final HttpClientConfig.PoolMetricsRegistry poolMetricsRegistry;
+    private final JmsWebsiteService jmsWebsiteService;
 
     @Autowired
-    public SpotifyDebugController(SpotifyConfig spotifyConfig, SpotifyPlaylistService spotifyPlaylistService) {
+    public SpotifyDebugController(SpotifyConfig spotifyConfig, SpotifyPlaylistService spotifyPlaylistService,
+                                  SpotifyRateGovernor spotifyRateGovernor,
+                                  ExecutionConfig.RequestConcurrencyTracker requestConcurrencyTracker,
+                                  HttpClientConfig.PoolMetricsRegistry poolMetricsRegistry,
+                                  JmsWebsiteService jmsWebsiteService) {
         this.spotifyConfig = spotifyConfig;
         this.spotifyPlaylistService = spotifyPlaylistService;
+        this.spotifyRateGovernor = spotifyRateGovernor;
+        this.requestConcurrencyTracker = requestConcurrencyTracker;
+        this.poolMetricsRegistry = poolMetricsRegistry;
+        this.jmsWebsiteService = jmsWebsiteService;
     }
 
     @GetMapping("/spotify-config")
@@ -73,7 +89,7 @@ public class SpotifyDebugController {
             }
             
             // Delete the playlists
-            int deletedCount = spotifyPlaylistService.deletePlaylists(accessToken, namePattern);
+            int deletedCount = spotifyPlaylistService.deletePlaylists(accessToken, (String) userProfile.get("id"), namePattern);
             
             logger.info("Successfully deleted {} playlists matching pattern: {}", deletedCount, namePattern);
             result.put("success", true);
@@ -88,4 +104,62 @@ public class SpotifyDebugController {
         
         return result;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Hit, miss and eviction counts for the per-user playlist catalog cache
+     */
+    @GetMapping("/playlist-cache")
+    public Map<String, Object> getPlaylistCacheStats() {
+        return spotifyPlaylistService.getPlaylistCacheStats();
+    }
+    
+    /**
+     * Queue depth and throttle-wait counters of the outbound Spotify rate governor
+     */
+    @GetMapping("/rate-governor")
+    public Map<String, Object> getRateGovernorStats() {
+        return spotifyRateGovernor.getStats();
+    }
+    
+    /**
+     * Current execution mode with in-flight and peak concurrent uploads/exports on this instance
+     */
+    @GetMapping("/execution-mode")
+    public Map<String, Object> getExecutionMode() {
+        return requestConcurrencyTracker.getStats();
+    }
+    
+    /**
+     * Active, idle and pending connections of each outbound connection pool
+     */
+    @GetMapping("/connection-pools")
+    public Map<String, Object> getConnectionPoolStats() {
+        return poolMetricsRegistry.getStats();
+    }
+    
+    /**
+     * How many concurrent Spotify profile reads with the same token were coalesced into one /me call.
+     * JMS fetches report theirs under conditionalRequests in /debug/jms-catalog-cache.
+     */
+    @GetMapping("/single-flight")
+    public Map<String, Object> getSingleFlightStats() {
+        return spotifyPlaylistService.getProfileReadStats();
+    }
+    
+    /**
+     * Hit/miss counters and age of the JMS catalog cache
+     */
+    @GetMapping("/jms-catalog-cache")
+    public Map<String, Object> getJmsCatalogCacheStats() {
+        return jmsWebsiteService.getPlaylistCacheStats();
+    }
+    
+    /**
+     * Drop the cached JMS catalog so the next request reloads it
+     */
+    @PostMapping("/jms-catalog-cache/invalidate")
+    public Map<String, Object> invalidateJmsCatalogCache() {
+        jmsWebsiteService.invalidatePlaylistCache();
+        return jmsWebsiteService.getPlaylistCacheStats();
+    }
+}
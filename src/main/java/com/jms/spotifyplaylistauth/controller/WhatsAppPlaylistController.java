@@ -1,6 +1,8 @@
 package com.jms.spotifyplaylistauth.controller;
 
 import com.jms.spotifyplaylistauth.dto.FridayPlaylist;
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
+import com.jms.spotifyplaylistauth.service.FridayPlaylistPlan;
 import com.jms.spotifyplaylistauth.service.SpotifyPlaylistService;
 import com.jms.spotifyplaylistauth.service.WhatsAppPlaylistService;
 import org.slf4j.Logger;
@@ -100,7 +102,7 @@ public class WhatsAppPlaylistController {
                 model.addAttribute("userProfile", userProfile);
                 logger.info("User profile retrieved successfully for user {}", userProfile.get("id"));
                 
-                List<Map<String, Object>> playlists = spotifyPlaylistService.getUserPlaylists(effectiveToken);
+                List<SpotifyPlaylist> playlists = spotifyPlaylistService.getUserPlaylists(effectiveToken);
                 model.addAttribute("playlists", playlists);
                 
                 logger.info("Successfully retrieved user profile and {} playlists", playlists.size());
@@ -197,8 +199,10 @@ public class WhatsAppPlaylistController {
                 }
             }
             
-            List<FridayPlaylist> playlists = whatsAppPlaylistService.processWhatsAppChatExport(file, accessToken);
+            FridayPlaylistPlan plan = whatsAppPlaylistService.processWhatsAppChatExport(file, accessToken);
+            List<FridayPlaylist> playlists = plan.playlists();
             model.addAttribute("playlists", playlists);
+            model.addAttribute("dateFormat", plan.dateFormat().toString());
             model.addAttribute("accessToken", accessToken);
             model.addAttribute("jmsChecked", true); // Indicate that JMS website playlists were checked
             model.addAttribute("jmsPlaylistsCount", jmsPlaylists.size());
@@ -235,6 +239,16 @@ public class WhatsAppPlaylistController {
                         jmsPlaylists.size(),
                         userPlaylists.size()
                     ));
+                    
+                    long incomplete = createdPlaylists.stream()
+                            .filter(created -> created.get("failedTracks") instanceof Integer failed && failed > 0)
+                            .count();
+                    if (incomplete > 0) {
+                        logger.warn("{} playlists are missing tracks that could not be added", incomplete);
+                        model.addAttribute("error", String.format(
+                            "Some tracks could not be added to %d of the playlists. See the playlists below for details.",
+                            incomplete));
+                    }
                 }
             } catch (IllegalArgumentException e) {
                 logger.error("Error creating playlists - invalid argument: {}", e.getMessage());
@@ -1,5 +1,6 @@
 package com.jms.spotifyplaylistauth.controller.api;
 
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
 import com.jms.spotifyplaylistauth.service.PlaylistExportService;
 import com.jms.spotifyplaylistauth.service.SpotifyPlaylistService;
 import org.slf4j.Logger;
@@ -92,13 +93,13 @@ public class PlaylistExportController {
             String userId = (String) userProfile.get("id");
             
             // Get user's playlists for debugging
-            List<Map<String, Object>> playlists = spotifyPlaylistService.getUserPlaylists(accessToken);
+            List<SpotifyPlaylist> playlists = spotifyPlaylistService.getUserPlaylists(accessToken);
             
             // Filter for potential playlists matching our patterns
             List<Map<String, String>> filteredPlaylists = new ArrayList<>();
-            for (Map<String, Object> playlist : playlists) {
-                String name = (String) playlist.get("name");
-                String id = (String) playlist.get("id");
+            for (SpotifyPlaylist playlist : playlists) {
+                String name = playlist.getName();
+                String id = playlist.getId();
                 
                 if (name != null && id != null && (name.contains("Weekly Mix") || name.contains("JMS Mix"))) {
                     filteredPlaylists.add(Map.of(
@@ -0,0 +1,77 @@
+package com.jms.spotifyplaylistauth.controller.api;
+
+import com.jms.spotifyplaylistauth.service.ReactiveWhatsAppPlaylistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST API controller for the non-blocking WhatsApp to Spotify pipeline.
+ * Handlers return a Mono, so the servlet thread is released while Spotify is called.
+ */
+@RestController
+@RequestMapping("/api/whatsapp")
+public class WhatsAppReactiveController {
+    private static final Logger logger = LoggerFactory.getLogger(WhatsAppReactiveController.class);
+
+    private final ReactiveWhatsAppPlaylistService reactiveWhatsAppPlaylistService;
+
+    @Autowired
+    public WhatsAppReactiveController(ReactiveWhatsAppPlaylistService reactiveWhatsAppPlaylistService) {
+        this.reactiveWhatsAppPlaylistService = reactiveWhatsAppPlaylistService;
+    }
+
+    /**
+     * Work out which Friday playlists would be created, without creating them
+     * @param file WhatsApp chat export
+     * @param accessToken Spotify access token
+     * @return List of planned playlists and the detected chat date format
+     */
+    @PostMapping("/plan")
+    public Mono<ResponseEntity<?>> planPlaylists(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("accessToken") String accessToken) {
+        logger.info("Reactive playlist plan requested for file: {}", file.getOriginalFilename());
+
+        return reactiveWhatsAppPlaylistService.processWhatsAppChatExport(file, accessToken)
+                .<ResponseEntity<?>>map(plan -> ResponseEntity.ok(Map.of(
+                        "plannedPlaylists", plan.playlists(),
+                        "dateFormat", plan.dateFormat().getPattern())))
+                .onErrorResume(e -> Mono.just(errorResponse("Failed to process WhatsApp chat", e)));
+    }
+
+    /**
+     * Process a WhatsApp chat export and create the new playlists in Spotify
+     * @param file WhatsApp chat export
+     * @param accessToken Spotify access token
+     * @return Planned and created playlists
+     */
+    @PostMapping("/process")
+    public Mono<ResponseEntity<?>> processWhatsAppChat(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("accessToken") String accessToken) {
+        logger.info("Reactive WhatsApp processing requested for file: {}, size: {}", file.getOriginalFilename(), file.getSize());
+
+        return reactiveWhatsAppPlaylistService.processAndCreatePlaylists(file, accessToken)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(errorResponse("Failed to create playlists", e)));
+    }
+
+    private ResponseEntity<?> errorResponse(String message, Throwable e) {
+        logger.error("{}: {}", message, e.getMessage(), e);
+
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message + ": " + e.getMessage());
+
+        HttpStatus status = e instanceof IllegalArgumentException ? HttpStatus.UNAUTHORIZED : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -0,0 +1,40 @@
+package com.jms.spotifyplaylistauth.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One playlist from the JMS catalog JSON (title, embed link and tags)
+ */
+public class JmsPlaylistEntry {
+    private final String title;
+    private final String link;
+    private final List<String> tags;
+
+    public JmsPlaylistEntry(String title, String link, List<String> tags) {
+        this.title = title;
+        this.link = link;
+        this.tags = tags != null ? tags : new ArrayList<>();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getLink() {
+        return link;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public String toString() {
+        return "JmsPlaylistEntry{" +
+                "title='" + title + '\'' +
+                ", link='" + link + '\'' +
+                ", tags=" + tags +
+                '}';
+    }
+}
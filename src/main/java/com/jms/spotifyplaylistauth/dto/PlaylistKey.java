@@ -0,0 +1,229 @@
+package com.jms.spotifyplaylistauth.dto;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Canonical identity of a JMS playlist, whatever spelling its name uses.
+ * "Weekly Mix dd.MM.yyyy" and "JMS dd.MM.yy" name the same weekly playlist and
+ * map to the same key; "JMS Mix N" maps to a mix key.
+ * The key packs into a single int: weekly playlists are the epoch day of their date
+ * (always positive), mixes are the bitwise complement of the mix number (always negative).
+ */
+public final class PlaylistKey {
+    /** Returned by {@link #parseKey} for names that are not JMS playlists */
+    public static final int NO_KEY = Integer.MIN_VALUE;
+
+    private static final String WEEKLY_MIX_PREFIX = "Weekly Mix ";
+    private static final String JMS_MIX_PREFIX = "JMS Mix ";
+    private static final String JMS_PREFIX = "JMS ";
+
+    private final int value;
+
+    private PlaylistKey(int value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the key of this playlist name, or null if it is not a JMS playlist name
+     */
+    public static PlaylistKey parse(String name) {
+        int key = parseKey(name);
+        return key != NO_KEY ? new PlaylistKey(key) : null;
+    }
+
+    /**
+     * Allocation-free variant of {@link #parse}
+     * @return the int key of this playlist name, or {@link #NO_KEY}
+     */
+    public static int parseKey(String name) {
+        return name != null ? parseKeyAt(name, 0) : NO_KEY;
+    }
+
+    /**
+     * Like {@link #parseKey}, but the JMS name may appear anywhere in the playlist name,
+     * e.g. "Copy of JMS Mix 12"; the first JMS name found is used
+     * @return the int key, or {@link #NO_KEY}
+     */
+    public static int findKey(String name) {
+        if (name == null) {
+            return NO_KEY;
+        }
+        for (int start = nextCandidate(name, 0); start >= 0; start = nextCandidate(name, start + 1)) {
+            int key = parseKeyAt(name, start);
+            if (key != NO_KEY) {
+                return key;
+            }
+        }
+        return NO_KEY;
+    }
+
+    private static int parseKeyAt(String name, int start) {
+        if (name.startsWith(WEEKLY_MIX_PREFIX, start)) {
+            return parseDate(name, start + WEEKLY_MIX_PREFIX.length(), 4);
+        }
+        if (name.startsWith(JMS_MIX_PREFIX, start)) {
+            return parseMixNumber(name, start + JMS_MIX_PREFIX.length());
+        }
+        if (name.startsWith(JMS_PREFIX, start)) {
+            return parseDate(name, start + JMS_PREFIX.length(), 2);
+        }
+        return NO_KEY;
+    }
+
+    // Next position at or after from where a "JMS " or "Weekly Mix " prefix could start
+    private static int nextCandidate(String name, int from) {
+        for (int i = from; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == 'J' || c == 'W') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static int ofDate(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    public static int ofMix(int mixNumber) {
+        return ~mixNumber;
+    }
+
+    public static PlaylistKey of(int key) {
+        return new PlaylistKey(key);
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public boolean isWeekly() {
+        return value >= 0;
+    }
+
+    public boolean isMix() {
+        return value < 0;
+    }
+
+    public LocalDate getDate() {
+        return isWeekly() ? LocalDate.ofEpochDay(value) : null;
+    }
+
+    public int getMixNumber() {
+        return isMix() ? ~value : -1;
+    }
+
+    /**
+     * Name used for playlists created here: "JMS dd.MM.yy" or "JMS Mix N"
+     */
+    public String toJmsName() {
+        if (isMix()) {
+            return JMS_MIX_PREFIX + getMixNumber();
+        }
+        LocalDate date = getDate();
+        return JMS_PREFIX + twoDigits(date.getDayOfMonth()) + "." + twoDigits(date.getMonthValue())
+                + "." + twoDigits(date.getYear() % 100);
+    }
+
+    /**
+     * Name used on the JMS website: "Weekly Mix dd.MM.yyyy" or "JMS Mix N"
+     */
+    public String toWebsiteName() {
+        if (isMix()) {
+            return JMS_MIX_PREFIX + getMixNumber();
+        }
+        LocalDate date = getDate();
+        return WEEKLY_MIX_PREFIX + twoDigits(date.getDayOfMonth()) + "." + twoDigits(date.getMonthValue())
+                + "." + date.getYear();
+    }
+
+    // d{1,2}.dd.yy or d{1,2}.dd.yyyy; two-digit years are 20yy. Trailing text must not continue the number.
+    private static int parseDate(String name, int start, int yearDigits) {
+        int length = name.length();
+        int pos = start;
+
+        int day = 0;
+        int dayDigits = 0;
+        while (pos < length && dayDigits < 2 && isDigit(name.charAt(pos))) {
+            day = day * 10 + (name.charAt(pos++) - '0');
+            dayDigits++;
+        }
+        if (dayDigits == 0 || pos + 4 + yearDigits > length || name.charAt(pos) != '.') {
+            return NO_KEY;
+        }
+        int month = twoDigitValue(name, pos + 1);
+        if (month < 0 || name.charAt(pos + 3) != '.') {
+            return NO_KEY;
+        }
+        pos += 4;
+        int year = 0;
+        for (int i = 0; i < yearDigits; i++, pos++) {
+            char c = name.charAt(pos);
+            if (!isDigit(c)) {
+                return NO_KEY;
+            }
+            year = year * 10 + (c - '0');
+        }
+        if (pos < length && isDigit(name.charAt(pos))) {
+            return NO_KEY;
+        }
+        if (yearDigits == 2) {
+            year += 2000;
+        } else if (year < 1970) {
+            // Negative epoch days would collide with mix keys
+            return NO_KEY;
+        }
+
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return NO_KEY;
+        }
+    }
+
+    private static int parseMixNumber(String name, int start) {
+        int length = name.length();
+        int pos = start;
+        long number = 0;
+        while (pos < length && isDigit(name.charAt(pos))) {
+            number = number * 10 + (name.charAt(pos++) - '0');
+            if (number > Integer.MAX_VALUE - 1) {
+                return NO_KEY;
+            }
+        }
+        return pos > start ? ofMix((int) number) : NO_KEY;
+    }
+
+    private static int twoDigitValue(String name, int pos) {
+        char tens = name.charAt(pos);
+        char units = name.charAt(pos + 1);
+        if (!isDigit(tens) || !isDigit(units)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PlaylistKey other && other.value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return toJmsName();
+    }
+}
@@ -0,0 +1,66 @@
+package com.jms.spotifyplaylistauth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a Spotify paging object (items plus the paging fields we use).
+ * Unknown fields such as href and previous are skipped while decoding.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SpotifyPage<T> {
+    private List<T> items = new ArrayList<>();
+    private Integer total;
+    private String next;
+    private int offset;
+    private int limit;
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items != null ? items : new ArrayList<>();
+    }
+
+    /**
+     * Total number of items across all pages, or null if Spotify did not report it
+     */
+    public Integer getTotal() {
+        return total;
+    }
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    public boolean hasNext() {
+        return next != null && !next.isEmpty();
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,94 @@
+package com.jms.spotifyplaylistauth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The fields of a Spotify simplified playlist object that the application reads.
+ * Images, owner and the other nested objects are skipped while decoding,
+ * so a cached catalog holds only these few strings per playlist.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SpotifyPlaylist {
+    private String id;
+    private String name;
+
+    @JsonProperty("snapshot_id")
+    private String snapshotId;
+
+    private Tracks tracks;
+
+    public SpotifyPlaylist() {
+    }
+
+    public SpotifyPlaylist(String id, String name, String snapshotId) {
+        this.id = id;
+        this.name = name;
+        this.snapshotId = snapshotId;
+    }
+
+    /**
+     * Copy of this playlist with a new snapshot id
+     */
+    public SpotifyPlaylist withSnapshotId(String snapshotId) {
+        SpotifyPlaylist copy = new SpotifyPlaylist(id, name, snapshotId);
+        copy.tracks = tracks;
+        return copy;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSnapshotId() {
+        return snapshotId;
+    }
+
+    public void setSnapshotId(String snapshotId) {
+        this.snapshotId = snapshotId;
+    }
+
+    public Tracks getTracks() {
+        return tracks;
+    }
+
+    public void setTracks(Tracks tracks) {
+        this.tracks = tracks;
+    }
+
+    @Override
+    public String toString() {
+        return "SpotifyPlaylist{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                '}';
+    }
+
+    /**
+     * Track count reference of a playlist; the track objects themselves are not listed here
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Tracks {
+        private int total;
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+    }
+}
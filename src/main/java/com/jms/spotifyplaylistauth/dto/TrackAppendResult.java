@@ -0,0 +1,113 @@
+package com.jms.spotifyplaylistauth.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of adding tracks to a playlist in chunks.
+ * Each chunk records the playlist position it was written at, so failed chunks
+ * can be retried on their own without adding the successful ones twice.
+ */
+public class TrackAppendResult {
+    private final String playlistId;
+    private final List<Chunk> chunks = new ArrayList<>();
+
+    public TrackAppendResult(String playlistId) {
+        this.playlistId = playlistId;
+    }
+
+    public void addChunk(Chunk chunk) {
+        chunks.add(chunk);
+    }
+
+    public String getPlaylistId() {
+        return playlistId;
+    }
+
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    public List<Chunk> getFailedChunks() {
+        List<Chunk> failed = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            if (!chunk.isSuccess()) {
+                failed.add(chunk);
+            }
+        }
+        return failed;
+    }
+
+    public boolean isComplete() {
+        return getFailedChunks().isEmpty();
+    }
+
+    public int getAddedTrackCount() {
+        int count = 0;
+        for (Chunk chunk : chunks) {
+            if (chunk.isSuccess()) {
+                count += chunk.getTrackUris().size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Snapshot id returned by the last successful chunk, or null if none succeeded
+     */
+    public String getSnapshotId() {
+        String snapshotId = null;
+        for (Chunk chunk : chunks) {
+            if (chunk.isSuccess() && chunk.getSnapshotId() != null) {
+                snapshotId = chunk.getSnapshotId();
+            }
+        }
+        return snapshotId;
+    }
+
+    @Override
+    public String toString() {
+        return "TrackAppendResult{" +
+                "playlistId='" + playlistId + '\'' +
+                ", chunks=" + chunks.size() +
+                ", failed=" + getFailedChunks().size() +
+                ", addedTracks=" + getAddedTrackCount() +
+                '}';
+    }
+
+    public static class Chunk {
+        private final int position;
+        private final List<String> trackUris;
+        private final boolean success;
+        private final String snapshotId;
+        private final String error;
+
+        public Chunk(int position, List<String> trackUris, boolean success, String snapshotId, String error) {
+            this.position = position;
+            this.trackUris = trackUris;
+            this.success = success;
+            this.snapshotId = snapshotId;
+            this.error = error;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public List<String> getTrackUris() {
+            return trackUris;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getSnapshotId() {
+            return snapshotId;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Validator-aware GETs for the JMS sources.
+ * The ETag and Last-Modified of every successful response are remembered together
+ * with the parsed result. The next request for the same key is sent with
+ * If-None-Match / If-Modified-Since, and on 304 Not Modified the previously parsed
+ * result is returned without downloading or parsing the body again.
+ * Bodies are handed to the parser as a stream of buffers and never aggregated here.
+ */
+public class ConditionalFetchCache {
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalFetchCache.class);
+
+    private final Map<String, ValidatedResult> results = new ConcurrentHashMap<>();
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong fullDownloads = new AtomicLong();
+    private final AtomicLong bytesDownloaded = new AtomicLong();
+
+    /**
+     * GET a URL and parse the body as it arrives, reusing the cached result when the server answers 304.
+     * The parser must consume (and release) the buffers it is given.
+     * @param purpose distinguishes different parsers used on the same URL
+     * @param parser turns the body buffers into a result; an empty result is not cached
+     * @return the parsed result, or null if nothing was parsed
+     */
+    public <T> T fetchStream(WebClient webClient, String purpose, String url, Function<Flux<DataBuffer>, Mono<T>> parser) {
+        return fetchStreamMono(webClient, purpose, url, parser).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchStream}; completes empty if nothing was parsed.
+     * Cancelling the returned Mono aborts the request once no other caller is sharing it.
+     */
+    public <T> Mono<T> fetchStreamMono(WebClient webClient, String purpose, String url,
+                                       Function<Flux<DataBuffer>, Mono<T>> parser) {
+        String key = purpose + " " + url;
+        // Concurrent fetches of the same key share one request and one parse
+        return singleFlight.execute(key, () -> Mono.defer(() -> {
+            ValidatedResult cached = results.get(key);
+            requests.incrementAndGet();
+            return webClient.get()
+                    .uri(url)
+                    .headers(headers -> {
+                        if (cached != null && cached.etag != null) {
+                            headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag);
+                        }
+                        if (cached != null && cached.lastModified != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified);
+                        }
+                    })
+                    .exchangeToMono(clientResponse -> {
+                        if (clientResponse.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                            return clientResponse.releaseBody().thenReturn(Response.<T>notModified());
+                        }
+                        if (clientResponse.statusCode().isError()) {
+                            return clientResponse.createException().flatMap(Mono::<Response<T>>error);
+                        }
+                        HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+                        fullDownloads.incrementAndGet();
+                        Flux<DataBuffer> body = clientResponse.bodyToFlux(DataBuffer.class)
+                                .doOnNext(buffer -> bytesDownloaded.addAndGet(buffer.readableByteCount()));
+                        return parser.apply(body)
+                                .map(parsed -> new Response<>(parsed, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED)))
+                                .defaultIfEmpty(new Response<>(null, null, null));
+                    })
+                    .mapNotNull(response -> resolve(key, url, cached, response));
+        }));
+    }
+
+    private <T> T resolve(String key, String url, ValidatedResult cached, Response<T> response) {
+        if (response.notModified && cached != null) {
+            notModified.incrementAndGet();
+            logger.debug("{} not modified, reusing parsed result", url);
+            @SuppressWarnings("unchecked")
+            T result = (T) cached.parsed;
+            return result;
+        }
+        if (response.parsed == null) {
+            results.remove(key);
+            return null;
+        }
+
+        if (response.etag != null || response.lastModified != null) {
+            results.put(key, new ValidatedResult(response.etag, response.lastModified, response.parsed));
+        } else {
+            results.remove(key);
+        }
+        return response.parsed;
+    }
+
+    /**
+     * Forget all validators so the next requests download in full
+     */
+    public void clear() {
+        results.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("validatedUrls", results.size());
+        stats.put("requests", requests.get());
+        stats.put("notModified", notModified.get());
+        stats.put("fullDownloads", fullDownloads.get());
+        stats.put("bytesDownloaded", bytesDownloaded.get());
+        stats.put("coalesced", singleFlight.getStats().get("coalesced"));
+        return stats;
+    }
+
+    private static class Response<T> {
+        private final T parsed;
+        private final String etag;
+        private final String lastModified;
+        private final boolean notModified;
+
+        private Response(T parsed, String etag, String lastModified) {
+            this(parsed, etag, lastModified, false);
+        }
+
+        private Response(T parsed, String etag, String lastModified, boolean notModified) {
+            this.parsed = parsed;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.notModified = notModified;
+        }
+
+        private static <T> Response<T> notModified() {
+            return new Response<>(null, null, null, true);
+        }
+    }
+
+    private static class ValidatedResult {
+        private final String etag;
+        private final String lastModified;
+        private final Object parsed;
+
+        private ValidatedResult(String etag, String lastModified, Object parsed) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.parsed = parsed;
+        }
+    }
+}
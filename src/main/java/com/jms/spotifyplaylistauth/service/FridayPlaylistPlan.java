@@ -0,0 +1,12 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.jms.spotifyplaylistauth.dto.FridayPlaylist;
+import com.jms.spotifyplaylistauth.service.whatsapp.ChatDateFormat;
+
+import java.util.List;
+
+/**
+ * The new Friday playlists found in a chat export, with the date layout the chat was parsed with
+ */
+public record FridayPlaylistPlan(List<FridayPlaylist> playlists, ChatDateFormat dateFormat) {
+}
@@ -0,0 +1,113 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Hedged fetch over several sources that can answer the same question.
+ * The primary source starts at once; each fallback starts after the hedge delay
+ * (one delay per position), or immediately once the source before it failed.
+ * The first valid answer wins and the sources still running are cancelled.
+ * Every source has its own deadline, so a hanging source cannot hold up the result.
+ */
+public class HedgedFetch<T> {
+    private static final Logger logger = LoggerFactory.getLogger(HedgedFetch.class);
+
+    private final String description;
+    private final Duration hedgeDelay;
+    private final Predicate<T> validator;
+    private final List<Source<T>> sources = new ArrayList<>();
+
+    public HedgedFetch(String description, Duration hedgeDelay, Predicate<T> validator) {
+        this.description = description;
+        this.hedgeDelay = hedgeDelay;
+        this.validator = validator;
+    }
+
+    /**
+     * Add a source; sources are tried in the order they are added
+     * @param fetch lazy fetch of the answer, subscribed only when the source starts
+     * @param deadline maximum time this source may take
+     */
+    public HedgedFetch<T> source(String name, Mono<T> fetch, Duration deadline) {
+        sources.add(new Source<>(name, fetch, deadline));
+        return this;
+    }
+
+    /**
+     * Run the hedged fetch
+     * @param onWinner told the name of the source that answered
+     * @return the first valid answer, or empty if no source produced one
+     */
+    public Mono<T> execute(Consumer<String> onWinner) {
+        return Mono.defer(() -> {
+            List<Mono<Answer<T>>> attempts = new ArrayList<>();
+            Sinks.Empty<Void> previousFailed = null;
+
+            for (int i = 0; i < sources.size(); i++) {
+                Source<T> source = sources.get(i);
+                Sinks.Empty<Void> failed = Sinks.empty();
+
+                Mono<Answer<T>> attempt = source.fetch
+                        .timeout(source.deadline)
+                        .filter(validator)
+                        .map(answer -> new Answer<>(source.name, answer))
+                        .onErrorResume(e -> {
+                            logger.warn("{}: source {} failed: {}", description, source.name, e.toString());
+                            return Mono.empty();
+                        })
+                        .switchIfEmpty(Mono.defer(() -> {
+                            failed.tryEmitEmpty();
+                            return Mono.empty();
+                        }));
+
+                if (i > 0) {
+                    // Start after i hedge delays, or as soon as the source before this one gave up
+                    Mono<Long> hedgeTimer = Mono.delay(hedgeDelay.multipliedBy(i));
+                    Mono<Long> previousGaveUp = previousFailed.asMono().then(Mono.just(0L));
+                    attempt = attempt.delaySubscription(Mono.firstWithSignal(hedgeTimer, previousGaveUp));
+                }
+
+                attempts.add(attempt);
+                previousFailed = failed;
+            }
+
+            // firstWithValue cancels the remaining attempts as soon as one emits. The winner is
+            // recorded here, once, since sources answering at nearly the same time may both emit.
+            return Mono.firstWithValue(attempts)
+                    .onErrorResume(e -> {
+                        logger.warn("{}: no source produced a valid answer", description);
+                        return Mono.empty();
+                    })
+                    .map(answer -> {
+                        logger.info("{}: answered by {}", description, answer.source());
+                        onWinner.accept(answer.source());
+                        return answer.value();
+                    });
+        });
+    }
+
+    // An answer tagged with the source that gave it
+    private record Answer<T>(String source, T value) {
+    }
+
+    private static class Source<T> {
+        private final String name;
+        private final Mono<T> fetch;
+        private final Duration deadline;
+
+        private Source(String name, Mono<T> fetch, Duration deadline) {
+            this.name = name;
+            this.fetch = fetch;
+            this.deadline = deadline;
+        }
+    }
+}
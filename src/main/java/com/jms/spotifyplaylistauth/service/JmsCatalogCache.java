@@ -0,0 +1,260 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide cache of the JMS playlist catalog with stale-while-revalidate semantics.
+ * A fresh copy is served directly. Once the TTL has passed the stale copy is still
+ * served immediately while a single background refresh runs. Only an empty cache, or
+ * a copy older than TTL plus the max stale time, makes the caller wait for a load,
+ * and concurrent callers then share that one load.
+ * A loader that can only offer a fallback (a local snapshot, say) throws
+ * {@link FallbackCatalogException}: the previous copy, or else the fallback, is then served
+ * as stale, so the next caller retries the load and the copy never passes for a fresh one.
+ */
+public class JmsCatalogCache {
+    private static final Logger logger = LoggerFactory.getLogger(JmsCatalogCache.class);
+
+    private final Supplier<Set<String>> loader;
+    private final Executor refreshExecutor;
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+
+    private volatile CatalogSnapshot snapshot;
+    private final AtomicReference<CompletableFuture<Set<String>>> inFlightLoad = new AtomicReference<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private volatile long lastUpstreamLoadAt = -1;
+
+    public JmsCatalogCache(Supplier<Set<String>> loader, Executor refreshExecutor, long ttlMillis, long maxStaleMillis) {
+        this.loader = loader;
+        this.refreshExecutor = refreshExecutor;
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    /**
+     * Get the catalog, loading it only if there is no usable copy
+     * @return a copy of the playlist names that the caller may modify
+     */
+    public Set<String> get() {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            long age = current.age();
+            if (age <= ttlMillis) {
+                hits.incrementAndGet();
+                return new HashSet<>(current.names);
+            }
+            if (age <= ttlMillis + maxStaleMillis) {
+                staleHits.incrementAndGet();
+                logger.debug("Serving JMS catalog {} s old, refreshing in the background", age / 1000);
+                load(true);
+                return new HashSet<>(current.names);
+            }
+        }
+
+        misses.incrementAndGet();
+        try {
+            return new HashSet<>(load(false).join());
+        } catch (CompletionException e) {
+            // The loader failed; a too-old copy is still better than nothing
+            CatalogSnapshot fallback = snapshot;
+            return fallback != null ? new HashSet<>(fallback.names) : new HashSet<>();
+        }
+    }
+
+    /**
+     * Start a refresh now without waiting for it, unless one is already running
+     */
+    public CompletableFuture<Set<String>> refresh() {
+        return load(true);
+    }
+
+    /**
+     * Install a catalog loaded from elsewhere (e.g. a snapshot on disk) if nothing is cached yet.
+     * The copy counts as stale, so it is served at once and the first get() starts a refresh.
+     */
+    public void seed(Set<String> names) {
+        if (snapshot == null && names != null && !names.isEmpty()) {
+            long expiredAt = System.currentTimeMillis() - ttlMillis - 1;
+            snapshot = new CatalogSnapshot(Collections.unmodifiableSet(new HashSet<>(names)), expiredAt, CatalogSource.SNAPSHOT);
+            logger.info("JMS catalog cache seeded with {} playlist names", names.size());
+        }
+    }
+
+    /**
+     * Drop the cached catalog so the next caller loads it again
+     */
+    public void invalidate() {
+        snapshot = null;
+        invalidations.incrementAndGet();
+        logger.info("JMS catalog cache invalidated");
+    }
+
+    /**
+     * Age of the cached copy in milliseconds, or -1 if nothing is cached
+     */
+    public long getAgeMillis() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current.age() : -1;
+    }
+
+    private CompletableFuture<Set<String>> load(boolean background) {
+        CompletableFuture<Set<String>> created = new CompletableFuture<>();
+        CompletableFuture<Set<String>> running = inFlightLoad.compareAndExchange(null, created);
+        if (running != null) {
+            // Someone else is already loading - share their result
+            return running;
+        }
+
+        if (background) {
+            try {
+                refreshExecutor.execute(() -> runLoad(created));
+            } catch (RuntimeException e) {
+                logger.warn("Could not schedule JMS catalog refresh: {}", e.getMessage());
+                inFlightLoad.compareAndSet(created, null);
+                created.completeExceptionally(e);
+            }
+        } else {
+            runLoad(created);
+        }
+        return created;
+    }
+
+    private void runLoad(CompletableFuture<Set<String>> result) {
+        try {
+            Set<String> names = loader.get();
+            refreshes.incrementAndGet();
+            if (names != null && !names.isEmpty()) {
+                snapshot = new CatalogSnapshot(Collections.unmodifiableSet(new HashSet<>(names)));
+                lastUpstreamLoadAt = System.currentTimeMillis();
+                logger.info("JMS catalog cache loaded with {} playlist names", names.size());
+            } else {
+                // Keep serving the previous copy rather than replacing it with nothing
+                logger.warn("JMS catalog load returned no playlists, keeping the cached copy");
+            }
+            CatalogSnapshot current = snapshot;
+            result.complete(current != null ? current.names : Collections.emptySet());
+        } catch (FallbackCatalogException e) {
+            refreshFailures.incrementAndGet();
+            fallbacks.incrementAndGet();
+            serveAsStale(e.getNames());
+            logger.warn("JMS catalog unavailable, serving the cached or fallback copy as stale: {}", e.getMessage());
+            result.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            refreshFailures.incrementAndGet();
+            logger.error("Error loading JMS catalog: {}", e.getMessage(), e);
+            result.completeExceptionally(e);
+        } finally {
+            inFlightLoad.compareAndSet(result, null);
+        }
+    }
+
+    /**
+     * Keep the previous copy, or install the fallback if there is none, marked as already expired.
+     * It is served for up to the max stale time while each new caller triggers a background retry.
+     */
+    private void serveAsStale(Set<String> fallback) {
+        CatalogSnapshot current = snapshot;
+        Set<String> names = current != null ? current.names : null;
+        if (names == null && fallback != null && !fallback.isEmpty()) {
+            names = Collections.unmodifiableSet(new HashSet<>(fallback));
+        }
+        if (names != null) {
+            long expiredAt = System.currentTimeMillis() - ttlMillis - 1;
+            snapshot = new CatalogSnapshot(names, expiredAt, CatalogSource.FALLBACK);
+        }
+    }
+
+    /**
+     * Where the cached copy came from: the JMS sources, the snapshot seeded at startup,
+     * or a fallback served because the sources were unavailable; null if nothing is cached
+     */
+    public CatalogSource getSource() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current.source : null;
+    }
+
+    /**
+     * Hit/miss counters and the age of the cached copy
+     */
+    public Map<String, Object> getStats() {
+        CatalogSnapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", current != null ? current.names.size() : 0);
+        stats.put("ageSeconds", current != null ? current.age() / 1000 : -1);
+        stats.put("source", current != null ? current.source : null);
+        stats.put("lastUpstreamLoadSecondsAgo", lastUpstreamLoadAt > 0 ? (System.currentTimeMillis() - lastUpstreamLoadAt) / 1000 : -1);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("maxStaleSeconds", maxStaleMillis / 1000);
+        stats.put("refreshing", inFlightLoad.get() != null);
+        stats.put("hits", hits.get());
+        stats.put("staleHits", staleHits.get());
+        stats.put("misses", misses.get());
+        stats.put("refreshes", refreshes.get());
+        stats.put("refreshFailures", refreshFailures.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("fallbacks", fallbacks.get());
+        return stats;
+    }
+
+    public enum CatalogSource {
+        UPSTREAM, SNAPSHOT, FALLBACK
+    }
+
+    /**
+     * Thrown by the loader when no source answered. The names it carries are served only
+     * while nothing better is cached, and always as a stale copy.
+     */
+    public static class FallbackCatalogException extends RuntimeException {
+        private final Set<String> names;
+
+        public FallbackCatalogException(String message, Set<String> names) {
+            super(message);
+            this.names = names;
+        }
+
+        public Set<String> getNames() {
+            return names;
+        }
+    }
+
+    private static class CatalogSnapshot {
+        private final Set<String> names;
+        private final long loadedAt;
+        private final CatalogSource source;
+
+        private CatalogSnapshot(Set<String> names) {
+            this(names, System.currentTimeMillis(), CatalogSource.UPSTREAM);
+        }
+
+        private CatalogSnapshot(Set<String> names, long loadedAt, CatalogSource source) {
+            this.names = names;
+            this.loadedAt = loadedAt;
+            this.source = source;
+        }
+
+        private long age() {
+            return System.currentTimeMillis() - loadedAt;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the JMS catalog as "jmsCatalog" in /actuator/health.
+ * UP once a catalog (fetched, or seeded from the local snapshot) can be served without
+ * a fetch in the request path; OUT_OF_SERVICE until then, which keeps the instance
+ * out of the readiness group while the startup prefetch is still running.
+ * A catalog served as a fallback while the JMS sources are down stays UP, so the instance
+ * keeps serving, but is reported with catalogSource FALLBACK and the last refresh error.
+ */
+@Component("jmsCatalog")
+public class JmsCatalogHealthIndicator implements HealthIndicator {
+
+    private final JmsCatalogRefresher jmsCatalogRefresher;
+
+    @Autowired
+    public JmsCatalogHealthIndicator(JmsCatalogRefresher jmsCatalogRefresher) {
+        this.jmsCatalogRefresher = jmsCatalogRefresher;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = jmsCatalogRefresher.isCatalogReady() ? Health.up() : Health.outOfService();
+        return builder.withDetails(jmsCatalogRefresher.getStatus()).build();
+    }
+}
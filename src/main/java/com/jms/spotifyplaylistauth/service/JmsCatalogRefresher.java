@@ -0,0 +1,124 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the JMS catalog warm so request threads never pay for a cold fetch.
+ * The catalog is prefetched as soon as the application is ready and then refreshed
+ * in the background at a jittered interval shorter than the catalog cache TTL,
+ * so requests are always served from a fresh copy.
+ */
+@Component
+public class JmsCatalogRefresher {
+    private static final Logger logger = LoggerFactory.getLogger(JmsCatalogRefresher.class);
+
+    private final JmsWebsiteService jmsWebsiteService;
+
+    @Value("${jms.refresh.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jms.refresh.interval-seconds:300}")
+    private long intervalSeconds;
+
+    // Each interval is randomised by up to this fraction so instances do not refresh in lockstep
+    @Value("${jms.refresh.jitter-ratio:0.2}")
+    private double jitterRatio;
+
+    private volatile Disposable schedule;
+    private volatile boolean prefetched;
+    private volatile long lastSuccessAt = -1;
+    private volatile int lastCatalogSize;
+    private volatile String lastError;
+
+    @Autowired
+    public JmsCatalogRefresher(JmsWebsiteService jmsWebsiteService) {
+        this.jmsWebsiteService = jmsWebsiteService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchOnStartup() {
+        if (!enabled) {
+            logger.info("JMS catalog prefetch and background refresh are disabled");
+            return;
+        }
+
+        logger.info("Prefetching JMS catalog, then refreshing every ~{} s", intervalSeconds);
+        refresh()
+                .doFinally(signal -> prefetched = true)
+                .subscribe();
+
+        schedule = Mono.defer(() -> Mono.delay(nextInterval()))
+                .flatMap(tick -> refresh())
+                .repeat()
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = schedule;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private Mono<Set<String>> refresh() {
+        return Mono.fromFuture(jmsWebsiteService::refreshPlaylistCache)
+                .doOnNext(names -> {
+                    lastSuccessAt = System.currentTimeMillis();
+                    lastCatalogSize = names.size();
+                    lastError = null;
+                })
+                .onErrorResume(e -> {
+                    lastError = e.getMessage();
+                    logger.warn("Background JMS catalog refresh failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Duration nextInterval() {
+        long intervalMillis = intervalSeconds * 1000L;
+        long jitterMillis = (long) (intervalMillis * jitterRatio);
+        long offset = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1) : 0;
+        return Duration.ofMillis(Math.max(1000L, intervalMillis + offset));
+    }
+
+    /**
+     * Whether the catalog can be served without a fetch in the request path
+     */
+    public boolean isCatalogReady() {
+        return jmsWebsiteService.getPlaylistCacheAgeMillis() >= 0;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        long ageMillis = jmsWebsiteService.getPlaylistCacheAgeMillis();
+        status.put("enabled", enabled);
+        status.put("prefetched", prefetched);
+        status.put("catalogAgeSeconds", ageMillis >= 0 ? ageMillis / 1000 : -1);
+        status.put("catalogSource", jmsWebsiteService.getPlaylistCacheSource());
+        status.put("lastRefreshSize", lastCatalogSize);
+        status.put("lastSuccessSecondsAgo", lastSuccessAt > 0 ? (System.currentTimeMillis() - lastSuccessAt) / 1000 : -1);
+        status.put("intervalSeconds", intervalSeconds);
+        status.put("jitterRatio", jitterRatio);
+        if (lastError != null) {
+            status.put("lastError", lastError);
+        }
+        return status;
+    }
+}
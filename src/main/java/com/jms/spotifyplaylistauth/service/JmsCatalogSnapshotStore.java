@@ -0,0 +1,231 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Local copy of the last successfully fetched JMS catalog.
+ * The file is versioned and checksummed:
+ * magic "JMSC", format version, save time, name count, then each name as length + UTF-8 bytes,
+ * followed by a CRC32 of everything before it.
+ * It is written to a temporary file and moved into place atomically, so a crash mid-write
+ * leaves the previous snapshot intact, and it is read through a memory-mapped buffer.
+ */
+public class JmsCatalogSnapshotStore {
+    private static final Logger logger = LoggerFactory.getLogger(JmsCatalogSnapshotStore.class);
+
+    private static final int MAGIC = 0x4A4D5343; // "JMSC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int MAX_NAME_BYTES = 4096;
+
+    private final Path path;
+
+    private volatile Set<String> lastSaved = Collections.emptySet();
+    private volatile long lastSavedAt = -1;
+    // Not synchronized, so a save on a virtual thread does not pin its carrier during the file I/O
+    private final ReentrantLock saveLock = new ReentrantLock();
+
+    public JmsCatalogSnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Persist the catalog, unless it is identical to the snapshot already on disk
+     * @return true if a new snapshot was written
+     */
+    public boolean save(Set<String> names) {
+        saveLock.lock();
+        try {
+            return write(names);
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    private boolean write(Set<String> names) {
+        if (names == null || names.isEmpty() || names.equals(lastSaved)) {
+            return false;
+        }
+
+        long savedAt = System.currentTimeMillis();
+        ByteBuffer buffer = encode(names, savedAt);
+        Path tempFile = null;
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            lastSaved = Set.copyOf(names);
+            lastSavedAt = savedAt;
+            logger.info("Saved JMS catalog snapshot with {} playlist names to {}", names.size(), path);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not save JMS catalog snapshot to {}: {}", path, e.getMessage());
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // Best effort; the next save writes a new temp file
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Read the snapshot from disk
+     * @return the snapshot, or null if there is none or it is unreadable
+     */
+    public Snapshot load() {
+        if (!Files.isRegularFile(path)) {
+            logger.info("No JMS catalog snapshot at {}", path);
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 8 || size > Integer.MAX_VALUE) {
+                logger.warn("Ignoring JMS catalog snapshot {} with unexpected size {}", path, size);
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Snapshot snapshot = decode(mapped);
+            if (snapshot != null) {
+                lastSaved = snapshot.getNames();
+                lastSavedAt = snapshot.getSavedAt();
+                logger.info("Loaded JMS catalog snapshot with {} playlist names from {}", snapshot.getNames().size(), path);
+            }
+            return snapshot;
+        } catch (IOException e) {
+            logger.warn("Could not read JMS catalog snapshot {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("path", path.toAbsolutePath().toString());
+        stats.put("entries", lastSaved.size());
+        stats.put("ageSeconds", lastSavedAt > 0 ? (System.currentTimeMillis() - lastSavedAt) / 1000 : -1);
+        return stats;
+    }
+
+    private static ByteBuffer encode(Set<String> names, long savedAt) {
+        byte[][] encoded = new byte[names.size()][];
+        int bodyBytes = 0;
+        int i = 0;
+        for (String name : names) {
+            encoded[i] = name.getBytes(StandardCharsets.UTF_8);
+            bodyBytes += 4 + encoded[i].length;
+            i++;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyBytes + 8);
+        buffer.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(savedAt)
+                .putInt(encoded.length);
+        for (byte[] name : encoded) {
+            buffer.putInt(name.length).put(name);
+        }
+        buffer.putLong(checksum(buffer, buffer.position()));
+        buffer.flip();
+        return buffer;
+    }
+
+    private Snapshot decode(ByteBuffer buffer) {
+        try {
+            int contentBytes = buffer.limit() - 8;
+            long expectedChecksum = buffer.getLong(contentBytes);
+            if (checksum(buffer, contentBytes) != expectedChecksum) {
+                logger.warn("Ignoring JMS catalog snapshot {}: checksum mismatch", path);
+                return null;
+            }
+            if (buffer.getInt() != MAGIC) {
+                logger.warn("Ignoring JMS catalog snapshot {}: not a snapshot file", path);
+                return null;
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                logger.warn("Ignoring JMS catalog snapshot {}: unsupported format version {}", path, version);
+                return null;
+            }
+            long savedAt = buffer.getLong();
+            int count = buffer.getInt();
+
+            Set<String> names = new HashSet<>();
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                if (length < 0 || length > MAX_NAME_BYTES || buffer.position() + length > contentBytes) {
+                    logger.warn("Ignoring JMS catalog snapshot {}: corrupt entry {}", path, i);
+                    return null;
+                }
+                if (length > scratch.length) {
+                    scratch = new byte[length];
+                }
+                buffer.get(scratch, 0, length);
+                names.add(new String(scratch, 0, length, StandardCharsets.UTF_8));
+            }
+            return new Snapshot(Collections.unmodifiableSet(names), savedAt);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            logger.warn("Ignoring truncated JMS catalog snapshot {}", path);
+            return null;
+        }
+    }
+
+    private static long checksum(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+
+    public static class Snapshot {
+        private final Set<String> names;
+        private final long savedAt;
+
+        private Snapshot(Set<String> names, long savedAt) {
+            this.names = names;
+            this.savedAt = savedAt;
+        }
+
+        public Set<String> getNames() {
+            return names;
+        }
+
+        public long getSavedAt() {
+            return savedAt;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.jms.spotifyplaylistauth.dto.JmsPlaylistEntry;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Single-pass reader for the JMS catalog JSON.
+ * Response buffers are fed to Jackson's non-blocking parser as they arrive and
+ * released straight away, and only the title, link and tag of each object are kept.
+ * Works for a bare array of playlists as well as for playlists nested in a wrapper object.
+ */
+public class JmsPlaylistJsonReader {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final List<JmsPlaylistEntry> entries = new ArrayList<>();
+
+    // One builder per open JSON object; the innermost object is at the head
+    private final Deque<EntryBuilder> objects = new ArrayDeque<>();
+    private String currentField;
+
+    private JmsPlaylistJsonReader(JsonFactory jsonFactory) throws IOException {
+        this.parser = jsonFactory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Read the playlists from a streamed response body
+     */
+    public static Mono<List<JmsPlaylistEntry>> read(Flux<DataBuffer> body, JsonFactory jsonFactory) {
+        return Mono.using(
+                () -> new JmsPlaylistJsonReader(jsonFactory),
+                reader -> body.doOnNext(reader::feed).then(Mono.fromCallable(reader::finish)),
+                JmsPlaylistJsonReader::close);
+    }
+
+    private void feed(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private List<JmsPlaylistEntry> finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        return entries;
+    }
+
+    private void close() {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+    }
+
+    /**
+     * Consume every complete token currently available
+     */
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            EntryBuilder current = objects.peek();
+            switch (token) {
+                case START_OBJECT:
+                    objects.push(new EntryBuilder());
+                    currentField = null;
+                    break;
+                case END_OBJECT:
+                    EntryBuilder finished = objects.pop();
+                    if (finished.title != null) {
+                        entries.add(new JmsPlaylistEntry(finished.title, finished.link, finished.tags));
+                    }
+                    currentField = null;
+                    break;
+                case FIELD_NAME:
+                    currentField = parser.currentName();
+                    break;
+                case START_ARRAY:
+                    if (current != null && "tag".equals(currentField)) {
+                        current.tags = new ArrayList<>();
+                        current.collectingTags = true;
+                    }
+                    break;
+                case END_ARRAY:
+                    if (current != null) {
+                        current.collectingTags = false;
+                    }
+                    currentField = null;
+                    break;
+                case VALUE_STRING:
+                    if (current != null) {
+                        current.accept(currentField, parser.getText());
+                    }
+                    if (current == null || !current.collectingTags) {
+                        currentField = null;
+                    }
+                    break;
+                default:
+                    // Numbers, booleans and nulls are not needed
+                    if (current == null || !current.collectingTags) {
+                        currentField = null;
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static class EntryBuilder {
+        private String title;
+        private String link;
+        private List<String> tags;
+        private boolean collectingTags;
+
+        private void accept(String field, String value) {
+            if (collectingTags) {
+                tags.add(value);
+            } else if ("title".equals(field)) {
+                title = value;
+            } else if ("link".equals(field)) {
+                link = value;
+            } else if ("tag".equals(field)) {
+                tags = new ArrayList<>();
+                tags.add(value);
+            }
+        }
+    }
+}
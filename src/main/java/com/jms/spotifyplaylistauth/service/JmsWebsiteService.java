@@ -1,17 +1,32 @@
 package com.jms.spotifyplaylistauth.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jms.spotifyplaylistauth.dto.JmsPlaylistEntry;
+import com.jms.spotifyplaylistauth.dto.PlaylistKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.netty.http.client.HttpClient;
 
+import jakarta.annotation.PostConstruct;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,14 +37,6 @@ public class JmsWebsiteService {
     private final WebClient webClient;
     private final WebClient redirectAwareWebClient;
     
-    // Patterns to extract playlist names in various formats
-    private static final Pattern PLAYLIST_NAME_PATTERN_1 = Pattern.compile("JMS\\s+(\\d{2}\\.\\d{2}\\.\\d{2})\\b");
-    private static final Pattern PLAYLIST_NAME_PATTERN_2 = Pattern.compile("\"name\":\"JMS\\s+(\\d{2}\\.\\d{2}\\.\\d{2})\"");
-    private static final Pattern PLAYLIST_NAME_PATTERN_3 = Pattern.compile("<title>JMS\\s+(\\d{2}\\.\\d{2}\\.\\d{2})");
-    private static final Pattern PLAYLIST_NAME_PATTERN_4 = Pattern.compile("JMS[_\\s]+(\\d{2}[._]\\d{2}[._]\\d{2})");
-    private static final Pattern PLAYLIST_NAME_PATTERN_5 = Pattern.compile("JMS Mix (\\d+)");
-    private static final Pattern PLAYLIST_NAME_PATTERN_6 = Pattern.compile("\"title\":\"JMS Mix (\\d+)\"");
-    
     @Value("${jms.website.playlists-url:https://jurassicmusicsociety.com/playlists}")
 private String jmsPlaylistsUrl;
 
@@ -42,19 +49,48 @@ private String jmsBackupUrl;
     @Value("${jms.api.use-api-first:true}")
     private boolean useApiFirst;
     
-    public JmsWebsiteService(WebClient.Builder webClientBuilder) {
-        // Create an HttpClient that automatically follows redirects
-        HttpClient httpClient = HttpClient.create()
-                .followRedirect(true)
-                .wiretap(true); // Enable detailed wire logging for network requests
-        
+    // Hedged fetch: fallbacks start after this delay, and every source has its own deadline
+    @Value("${jms.fetch.hedge-delay-ms:1500}")
+    private long hedgeDelayMs;
+    
+    @Value("${jms.fetch.api-timeout-ms:5000}")
+    private long apiTimeoutMs;
+    
+    @Value("${jms.fetch.website-timeout-ms:8000}")
+    private long websiteTimeoutMs;
+    
+    @Value("${jms.fetch.backup-timeout-ms:8000}")
+    private long backupTimeoutMs;
+    
+    @Value("${jms.cache.ttl-seconds:600}")
+    private long catalogCacheTtlSeconds;
+    
+    @Value("${jms.cache.max-stale-seconds:86400}")
+    private long catalogCacheMaxStaleSeconds;
+    
+    // Last successfully fetched catalog, used for a warm start and when every source is down
+    @Value("${jms.snapshot.path:data/jms-catalog.snapshot}")
+    private String catalogSnapshotPath;
+    
+    private final Scheduler blockingCallScheduler;
+    private final JsonFactory jsonFactory;
+    private final ConditionalFetchCache conditionalFetchCache = new ConditionalFetchCache();
+    private final Map<String, AtomicLong> hedgeWins = new ConcurrentHashMap<>();
+    private JmsCatalogCache catalogCache;
+    private JmsCatalogSnapshotStore snapshotStore;
+    
+    public JmsWebsiteService(WebClient.Builder webClientBuilder,
+                             @Qualifier("jmsHttpClient") HttpClient httpClient,
+                             Scheduler blockingCallScheduler,
+                             ObjectMapper objectMapper) {
+        this.blockingCallScheduler = blockingCallScheduler;
+        this.jsonFactory = objectMapper.getFactory();
+        // The JMS client has its own connection pool and follows redirects (see HttpClientConfig)
         logger.info("Initializing WebClient with automatic redirect following");
-        // Configure base WebClient to log requests and increase buffer size
+        // Configure base WebClient to log requests. Bodies are consumed as streamed buffers,
+        // so the default in-memory limit is enough however large the pages get.
         this.webClient = webClientBuilder
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .codecs(configurer -> configurer
-                        .defaultCodecs()
-                        .maxInMemorySize(16 * 1024 * 1024)) // Increase buffer size
                 .filter((request, next) -> {
                     // Custom filter to log request details for debugging
                     logger.debug("WebClient requesting: {} {}", request.method(), request.url());
@@ -66,392 +102,208 @@ private String jmsBackupUrl;
         this.redirectAwareWebClient = this.webClient;
     }
     
+    @PostConstruct
+    public void initCatalogCache() {
+        this.snapshotStore = new JmsCatalogSnapshotStore(Path.of(catalogSnapshotPath));
+        this.catalogCache = new JmsCatalogCache(this::loadExistingPlaylistNames,
+                task -> blockingCallScheduler.schedule(task),
+                catalogCacheTtlSeconds * 1000L, catalogCacheMaxStaleSeconds * 1000L);
+        
+        // Start from the snapshot so the first request is answered without waiting on the network
+        JmsCatalogSnapshotStore.Snapshot snapshot = snapshotStore.load();
+        if (snapshot != null) {
+            catalogCache.seed(snapshot.getNames());
+        }
+    }
+    
     /**
-     * Fetch existing playlist names from the JMS website and/or API
+     * Get existing playlist names from the JMS website and/or API.
+     * Served from the process-wide catalog cache; a stale copy is returned at once
+     * while a background refresh runs.
      */
     public Set<String> fetchExistingPlaylistNames() {
+        return catalogCache.get();
+    }
+    
+    /**
+     * Drop the cached JMS catalog, e.g. after new playlists were published on the website.
+     * The reload starts straight away in the background.
+     */
+    public void invalidatePlaylistCache() {
+        catalogCache.invalidate();
+        catalogCache.refresh();
+    }
+    
+    /**
+     * Reload the JMS catalog in the background, sharing a reload that is already running
+     */
+    public CompletableFuture<Set<String>> refreshPlaylistCache() {
+        return catalogCache.refresh();
+    }
+    
+    /**
+     * Age of the cached JMS catalog in milliseconds, or -1 if nothing is cached yet
+     */
+    public long getPlaylistCacheAgeMillis() {
+        return catalogCache.getAgeMillis();
+    }
+    
+    /**
+     * Where the cached JMS catalog came from, or null if nothing is cached yet
+     */
+    public JmsCatalogCache.CatalogSource getPlaylistCacheSource() {
+        return catalogCache.getSource();
+    }
+    
+    public Map<String, Object> getPlaylistCacheStats() {
+        Map<String, Object> stats = catalogCache.getStats();
+        stats.put("conditionalRequests", conditionalFetchCache.getStats());
+        stats.put("hedgeWins", new HashMap<>(hedgeWins));
+        stats.put("snapshot", snapshotStore.getStats());
+        return stats;
+    }
+    
+    /**
+     * Fetch existing playlist names from the JMS website and/or API
+     * @throws JmsCatalogCache.FallbackCatalogException with the local snapshot, or the hardcoded list,
+     *         when no source answered, so the cache does not take them for a fresh catalog
+     */
+    private Set<String> loadExistingPlaylistNames() {
         Set<String> combinedPlaylistNames = new HashSet<>();
         
-        // Start by fetching from the API
-        boolean apiSuccess = fetchFromApi(combinedPlaylistNames);
-        
-        // If API fails, try to fetch from the website as fallback
-        if (!apiSuccess) {
-            logger.warn("API fetch failed, trying website as fallback");
-            fetchFromWebsite(combinedPlaylistNames);
+        // API, website and backup are raced with hedging; the first non-empty answer wins
+        Set<String> fetchedPlaylistNames = fetchPlaylistNamesHedged().block();
+        if (fetchedPlaylistNames != null) {
+            combinedPlaylistNames.addAll(fetchedPlaylistNames);
         }
         
-        // If we still don't have any playlists, use the hardcoded data from paste.txt
         if (combinedPlaylistNames.isEmpty()) {
-            logger.warn("No playlists found from API or website - using fallback data from resource");
-            try {
-                // Load the paste.txt file from resources directory
-                org.springframework.core.io.Resource resource = 
-                    new org.springframework.core.io.ClassPathResource("paste.txt");
-                java.io.InputStream inputStream = resource.getInputStream();
-                java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.InputStreamReader(inputStream));
-                StringBuilder content = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    content.append(line);
-                }
-                String jsonData = content.toString();
-                
-                // Extract titles using regex
-                Pattern titlePattern = Pattern.compile("\"title\":\"([^\"]+)\"");
-                Matcher matcher = titlePattern.matcher(jsonData);
-                int count = 0;
-                while (matcher.find()) {
-                    String title = matcher.group(1);
-                    combinedPlaylistNames.add(title);
-                    logger.debug("Extracted title from paste.txt resource: {}", title);
-                    count++;
-                    
-                    // Also convert Weekly Mix to JMS format if applicable
-                    if (title.startsWith("Weekly Mix ")) {
-                        convertWeeklyMixToJmsFormat(title, combinedPlaylistNames);
-                    }
-                }
-                
-                logger.info("Extracted {} playlist titles from paste.txt resource", count);
-            } catch (Exception e) {
-                logger.error("Error reading or parsing paste.txt resource: {}", e.getMessage(), e);
-                // Fallback to hardcoded snippet
+            // Every source is down: fall back to the last catalog we fetched
+            logger.warn("No playlists found from API, website or backup - using the local catalog snapshot");
+            JmsCatalogSnapshotStore.Snapshot snapshot = snapshotStore.load();
+            if (snapshot != null) {
+                combinedPlaylistNames.addAll(snapshot.getNames());
+            } else {
+                // Nothing was ever fetched on this machine
                 loadHardcodedPlaylistData(combinedPlaylistNames);
             }
+            throw new JmsCatalogCache.FallbackCatalogException("No playlists found from API, website or backup",
+                    combinedPlaylistNames);
         }
         
+        snapshotStore.save(combinedPlaylistNames);
         logger.info("Combined total of {} existing playlist names", combinedPlaylistNames.size());
         return combinedPlaylistNames;
     }
     
+    /**
+     * Fetch playlist names from the API, website and backup URL with hedging.
+     * The preferred source (API unless jms.api.use-api-first=false) starts first,
+     * the others join after the hedge delay or as soon as the source before them fails.
+     */
+    private Mono<Set<String>> fetchPlaylistNamesHedged() {
+        HedgedFetch<Set<String>> hedgedFetch = new HedgedFetch<>("JMS playlist names", hedgeDelay(), names -> !names.isEmpty());
+        Mono<Set<String>> api = fetchPlaylistNamesFromJson(jmsApiPlaylistsUrl);
+        Mono<Set<String>> website = fetchPlaylistNamesFromWebsite();
+        
+        if (useApiFirst) {
+            hedgedFetch.source("api", api, Duration.ofMillis(apiTimeoutMs))
+                    .source("website", website, Duration.ofMillis(websiteTimeoutMs));
+        } else {
+            hedgedFetch.source("website", website, Duration.ofMillis(websiteTimeoutMs))
+                    .source("api", api, Duration.ofMillis(apiTimeoutMs));
+        }
+        hedgedFetch.source("backup", fetchPlaylistNamesFromJson(jmsBackupUrl), Duration.ofMillis(backupTimeoutMs));
+        
+        return hedgedFetch.execute(this::recordHedgeWinner);
+    }
+    
     /**
      * Fetch JMS playlists from a specific API URL
      * Used primarily for testing
      */
     public Set<String> fetchJmsPlaylists(String apiUrl) {
-        Set<String> playlistNames = new HashSet<>();
-        
         try {
             logger.info("Fetching playlists from API URL: {}", apiUrl);
             
-            // First try to get the response directly as a string using the redirect-aware client
-            String rawResponse = redirectAwareWebClient.get()
-                    .uri(apiUrl)
-                    .exchangeToMono(response -> {
-                        logger.info("Received response with status: {}", response.statusCode());
-                        return response.bodyToMono(String.class);
-                    })
-                    .block();
-            
-            if (rawResponse != null && !rawResponse.isEmpty()) {
-                logger.info("Received response of length: {}", rawResponse.length());
-                
-                // Log the first part of the response to help with debugging
-                logger.debug("Raw response (first 200 chars): {}", 
-                    rawResponse.length() > 200 ? rawResponse.substring(0, 200) + "..." : rawResponse);
-                
-                if (rawResponse.trim().startsWith("[") && rawResponse.trim().endsWith("]")) {
-                    logger.info("Response appears to be a valid JSON array");
-                    
-                    // Try parsing the response as a JSON object
-                    try {
-                        // Parse the response into an array of maps
-                        Object[] playlistsJson = redirectAwareWebClient.get()
-                                .uri(apiUrl)
-                                .retrieve()
-                                .bodyToMono(Object[].class)
-                                .block();
-                        
-                        if (playlistsJson != null && playlistsJson.length > 0) {
-                            logger.info("Successfully parsed JSON array with {} items", playlistsJson.length);
-                            
-                            // Process each playlist object
-                            for (Object obj : playlistsJson) {
-                                if (obj instanceof Map) {
-                                    Map<String, Object> playlist = (Map<String, Object>) obj;
-                                    if (playlist.containsKey("title")) {
-                                        String title = (String) playlist.get("title");
-                                        
-                                        // Add the playlist title directly
-                                        playlistNames.add(title);
-                                        logger.debug("Added playlist: {}", title);
-                                        
-                                        // Also convert Weekly Mix to JMS format and add it
-                                        if (title.startsWith("Weekly Mix ")) {
-                                            convertWeeklyMixToJmsFormat(title, playlistNames);
-                                        }
-                                    }
-                                }
-                            }
-                            
-                            logger.info("Extracted {} playlist names", playlistNames.size());
-                        } else {
-                            logger.warn("No playlists found in API response or failed to parse JSON");
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Could not parse JSON array response: {}", e.getMessage());
-                        
-                        // As a fallback, try to manually parse the JSON using string operations
-                        Pattern titlePattern = Pattern.compile("\"title\":\"([^\"]+)\"");
-                        Matcher matcher = titlePattern.matcher(rawResponse);
-                        int count = 0;
-                        while (matcher.find()) {
-                            String title = matcher.group(1);
-                            playlistNames.add(title);
-                            logger.debug("Manually parsed playlist title: {}", title);
-                            count++;
-                            
-                            // Convert "Weekly Mix" format to "JMS" format
-                            if (title.startsWith("Weekly Mix ")) {
-                                convertWeeklyMixToJmsFormat(title, playlistNames);
-                            }
-                        }
-                        logger.info("Manually extracted {} playlist titles from JSON string", count);
-                    }
-                } else {
-                    logger.warn("Response doesn't appear to be a JSON array, trying manual parsing");
-                    // Try to manually parse the JSON using string operations
-                    Pattern titlePattern = Pattern.compile("\"title\":\"([^\"]+)\"");
-                    Matcher matcher = titlePattern.matcher(rawResponse);
-                    int count = 0;
-                    while (matcher.find()) {
-                        String title = matcher.group(1);
-                        playlistNames.add(title);
-                        logger.debug("Manually parsed playlist title: {}", title);
-                        count++;
-                        
-                        // Convert "Weekly Mix" format to "JMS" format
-                        if (title.startsWith("Weekly Mix ")) {
-                            convertWeeklyMixToJmsFormat(title, playlistNames);
-                        }
-                    }
-                    logger.info("Manually extracted {} playlist titles from JSON string", count);
-                }
-            } else {
-                logger.warn("Received empty response from API");
+            Set<String> playlistNames = fetchPlaylistNamesFromJson(apiUrl).block();
+            if (playlistNames != null) {
+                return playlistNames;
             }
-            
+            logger.warn("No playlists found in API response");
         } catch (Exception ex) {
             logger.error("Error fetching playlists from API: {}", ex.getMessage(), ex);
         }
         
-        return playlistNames;
+        return new HashSet<>();
     }
     
     /**
-     * Fetch from API with more detailed error handling
+     * Fetch the playlist entries (title, link, tags) of a JMS JSON source in a single streamed pass
+     * @return the entries, or null if the body held no playlists
      */
-    private boolean fetchFromApi(Set<String> playlistNames) {
-        try {
-            logger.info("Fetching existing playlist names from JMS API: {}", jmsApiPlaylistsUrl);
-            
-            // First try to parse the JSON format we've seen in paste.txt
-            try {
-                // Make a manual GET request with redirect-following
-                String rawResponse = redirectAwareWebClient.get()
-                        .uri(jmsApiPlaylistsUrl)
-                        .exchangeToMono(response -> {
-                            logger.info("Received response with status: {}", response.statusCode());
-                            return response.bodyToMono(String.class);
-                        })
-                        .block();
-                
-                if (rawResponse != null && !rawResponse.isEmpty()) {
-                    logger.info("Successfully received raw API response with length: {}", rawResponse.length());
-                    logger.debug("Raw API response (first 200 chars): {}", 
-                          rawResponse.length() > 200 ? rawResponse.substring(0, 200) + "..." : rawResponse);
-                    
-                    // Try to extract playlist titles using regex pattern for the known format
-                    if (rawResponse.contains("\"title\":") && 
-                        (rawResponse.contains("\"link\":") || rawResponse.contains("\"tag\":"))) {
-                        
-                        logger.info("Response appears to contain playlist data in expected format, parsing...");
-                        Pattern playlistPattern = Pattern.compile("\\{[^\\}]*\"title\"\\s*:\\s*\"([^\"]+)\"[^\\}]*\\}");
-                        Matcher matcher = playlistPattern.matcher(rawResponse);
-                        
-                        int count = 0;
-                        while (matcher.find()) {
-                            String title = matcher.group(1);
-                            playlistNames.add(title);
-                            logger.debug("Parsed playlist title: {}", title);
-                            count++;
-                            
-                            // Also handle JMS format conversion
-                            if (title.startsWith("Weekly Mix ")) {
-                                convertWeeklyMixToJmsFormat(title, playlistNames);
-                            }
-                        }
-                        
-                        // If we couldn't find matches with the regex above, try a more direct approach
-                        if (count == 0 && rawResponse.contains("\"title\":")) {
-                            // Simple pattern to match "title":"..."
-                            Pattern simpleTitlePattern = Pattern.compile("\"title\":\"([^\"]+)\"");
-                            Matcher simpleMatcher = simpleTitlePattern.matcher(rawResponse);
-                            
-                            while (simpleMatcher.find()) {
-                                String title = simpleMatcher.group(1);
-                                playlistNames.add(title);
-                                logger.debug("Parsed playlist title using simple pattern: {}", title);
-                                count++;
-                                
-                                // Also handle JMS format conversion
-                                if (title.startsWith("Weekly Mix ")) {
-                                    convertWeeklyMixToJmsFormat(title, playlistNames);
-                                }
-                            }
-                        }
-                        
-                        if (count > 0) {
-                            logger.info("Successfully extracted {} playlist titles from JSON data", count);
-                            return true;
-                        }
-                    }
-                } else {
-                    logger.warn("Empty response from JMS API");
-                }
-            } catch (Exception e) {
-                logger.warn("Error trying to parse paste.txt format: {}", e.getMessage());
-            }
-            
-            // Fallback to using our general method
-            Set<String> fetchedPlaylists = fetchJmsPlaylists(jmsApiPlaylistsUrl);
-            if (!fetchedPlaylists.isEmpty()) {
-                logger.info("Successfully fetched {} playlists from JMS API using fetchJmsPlaylists", fetchedPlaylists.size());
-                playlistNames.addAll(fetchedPlaylists);
-                return true;
-            }
-            
-            return false;
-        } catch (Exception ex) {
-            logger.error("Unexpected error fetching JMS API: {}", ex.getMessage(), ex);
-            return false;
-        }
+    public List<JmsPlaylistEntry> fetchPlaylistEntries(String url) {
+        return fetchPlaylistEntriesMono(url).block();
     }
     
-    /**
-     * Fetch playlist data from the JMS website by scraping HTML
-     * @param playlistNames Set to add found playlist names to
-     * @return true if website fetch was successful, false otherwise
-     */
-    private boolean fetchFromWebsite(Set<String> playlistNames) {
-        try {
-            logger.info("Fetching existing playlist names from JMS website: {}", jmsPlaylistsUrl);
-            
-            String pageContent = redirectAwareWebClient.get()
-                    .uri(jmsPlaylistsUrl)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            
-            if (pageContent != null && !pageContent.isEmpty()) {
-                // Extract playlist names from the page content
-                Set<String> websitePlaylistNames = extractPlaylistNamesFromHtml(pageContent);
-                logger.info("Found {} existing playlist names on JMS website", websitePlaylistNames.size());
-                playlistNames.addAll(websitePlaylistNames);
-                return true;
-            } else {
-                logger.warn("Received empty response from JMS website");
-                return false;
-            }
-        } catch (WebClientResponseException wcre) {
-            logger.error("Error fetching JMS website: {} - {}", wcre.getStatusCode(), wcre.getStatusText());
-            return false;
-        } catch (Exception ex) {
-            logger.error("Unexpected error fetching JMS website: {}", ex.getMessage(), ex);
-            return false;
-        }
+    private Mono<List<JmsPlaylistEntry>> fetchPlaylistEntriesMono(String url) {
+        // One request, parsed as the bytes arrive; an unchanged response reuses the previous entries
+        return conditionalFetchCache.fetchStreamMono(redirectAwareWebClient, "entries", url,
+                body -> JmsPlaylistJsonReader.read(body, jsonFactory)
+                        .filter(entries -> !entries.isEmpty()));
     }
     
     /**
-     * Extract playlist names from the HTML content
+     * Playlist names (plus their JMS-format variants) from a JMS JSON source
      */
-    private Set<String> extractPlaylistNamesFromHtml(String htmlContent) {
-        Set<String> playlistNames = new HashSet<>();
-        
-        // Try each pattern to extract playlist names
-        findPlaylistsWithPattern(playlistNames, htmlContent, PLAYLIST_NAME_PATTERN_1);
-        findPlaylistsWithPattern(playlistNames, htmlContent, PLAYLIST_NAME_PATTERN_2);
-        findPlaylistsWithPattern(playlistNames, htmlContent, PLAYLIST_NAME_PATTERN_3);
-        findPlaylistsWithPattern(playlistNames, htmlContent, PLAYLIST_NAME_PATTERN_4);
-        
-        // Add JMS Mix playlists
-        findJmsMixPlaylists(playlistNames, htmlContent, PLAYLIST_NAME_PATTERN_5);
-        findJmsMixPlaylists(playlistNames, htmlContent, PLAYLIST_NAME_PATTERN_6);
-        
-        return playlistNames;
+    private Mono<Set<String>> fetchPlaylistNamesFromJson(String url) {
+        return fetchPlaylistEntriesMono(url)
+                .map(entries -> {
+                    Set<String> playlistNames = new HashSet<>();
+                    for (JmsPlaylistEntry entry : entries) {
+                        String title = entry.getTitle();
+                        
+                        // Add the playlist title directly
+                        playlistNames.add(title);
+                        logger.debug("Added playlist: {}", title);
+                        
+                        // Also convert Weekly Mix to JMS format and add it
+                        if (title.startsWith("Weekly Mix ")) {
+                            convertWeeklyMixToJmsFormat(title, playlistNames);
+                        }
+                    }
+                    logger.info("Extracted {} playlist names from {} entries at {}", playlistNames.size(), entries.size(), url);
+                    return playlistNames;
+                });
     }
     
     /**
-     * Find playlists using a specific pattern
+     * Playlist names scraped from the JMS website HTML
      */
-    private void findPlaylistsWithPattern(Set<String> playlistNames, String content, Pattern pattern) {
-        Matcher matcher = pattern.matcher(content);
-        
-        while (matcher.find()) {
-            String date = matcher.group(1);
-            
-            // Normalize the date format if needed
-            date = date.replaceAll("[_]", ".");
-            
-            String playlistName = "JMS " + date;
-            playlistNames.add(playlistName);
-            logger.debug("Found existing playlist: {}", playlistName);
-        }
+    private Mono<Set<String>> fetchPlaylistNamesFromWebsite() {
+        // Scanned as the page streams in; reused as-is when the page is not modified
+        return conditionalFetchCache.fetchStreamMono(redirectAwareWebClient, "website-names",
+                        jmsPlaylistsUrl, PlaylistNameScanner::scan)
+                .doOnNext(names -> logger.info("Found {} existing playlist names on JMS website", names.size()));
     }
     
-    /**
-     * Find JMS Mix playlists using a specific pattern
-     */
-    private void findJmsMixPlaylists(Set<String> playlistNames, String content, Pattern pattern) {
-        Matcher matcher = pattern.matcher(content);
-        
-        while (matcher.find()) {
-            String mixNumber = matcher.group(1);
-            String playlistName = "JMS Mix " + mixNumber;
-            playlistNames.add(playlistName);
-            logger.debug("Found existing JMS Mix playlist: {}", playlistName);
-        }
+    private Duration hedgeDelay() {
+        return Duration.ofMillis(hedgeDelayMs);
+    }
+    
+    private void recordHedgeWinner(String source) {
+        hedgeWins.computeIfAbsent(source, k -> new AtomicLong()).incrementAndGet();
     }
     
     /**
      * Helper method to convert Weekly Mix format to JMS format
      */
     private void convertWeeklyMixToJmsFormat(String weeklyMixTitle, Set<String> playlistNames) {
-        String datePart = weeklyMixTitle.substring("Weekly Mix ".length());
-        try {
-            // Format: DD.MM.YYYY -> JMS DD.MM.YY
-            if (datePart.matches("\\d{2}\\.\\d{2}\\.\\d{4}")) {
-                String day = datePart.substring(0, 2);
-                String month = datePart.substring(3, 5);
-                String year = datePart.substring(8, 10); // Last 2 digits
-                String jmsTitle = "JMS " + day + "." + month + "." + year;
-                playlistNames.add(jmsTitle);
-                logger.debug("Added converted JMS version: {}", jmsTitle);
-            } else if (datePart.matches("\\d{1,2}\\.\\d{2}\\.\\d{4}")) {
-                // Handle single digit day format
-                String[] parts = datePart.split("\\.");
-                String day = parts[0].length() == 1 ? "0" + parts[0] : parts[0];
-                String month = parts[1];
-                String year = parts[2].substring(2); // Last 2 digits
-                String jmsTitle = "JMS " + day + "." + month + "." + year;
-                playlistNames.add(jmsTitle);
-                logger.debug("Added converted JMS version (single digit day): {}", jmsTitle);
-            }
-            
-            // Handle numeric format (e.g., "Weekly Mix 4.10.2024")
-            else if (datePart.matches("\\d{1,2}\\.\\d{2}\\.\\d{4}")) {
-                String[] parts = datePart.split("\\.");
-                String day = parts[0].length() == 1 ? "0" + parts[0] : parts[0];
-                String month = parts[1];
-                String year = parts[2].substring(2); // Last 2 digits
-                String jmsTitle = "JMS " + day + "." + month + "." + year;
-                playlistNames.add(jmsTitle);
-                logger.debug("Added converted JMS version from numeric format: {}", jmsTitle);
-            }
-        } catch (Exception ex) {
-            logger.warn("Error converting Weekly Mix date format for '{}': {}", weeklyMixTitle, ex.getMessage());
+        PlaylistKey key = PlaylistKey.parse(weeklyMixTitle);
+        if (key != null && key.isWeekly()) {
+            String jmsTitle = key.toJmsName();
+            playlistNames.add(jmsTitle);
+            logger.debug("Added converted JMS version: {}", jmsTitle);
         }
     }
     
@@ -483,50 +335,33 @@ private String jmsBackupUrl;
     }
     
     /**
-     * Fetch the raw JSON for playlists from the JMS website
-     * @return JSON string of playlists or null if not available
+     * Fetch the full playlist entries (title, link, tags) from the JMS API, with the backup URL hedged behind it.
+     * The JSON is parsed as it streams in; no response body is held in memory as a whole.
+     * @return the entries of the first source that answered with valid playlists, or null if none did
      */
-    public String fetchPlaylistsJson() {
-        logger.info("Fetching raw playlists JSON data from JMS API");
+    public List<JmsPlaylistEntry> fetchExistingPlaylistEntries() {
+        logger.info("Fetching playlist entries from JMS API");
         
-        try {
-            // Try to fetch from the API endpoint
-            String apiResponse = redirectAwareWebClient.get()
-                    .uri(jmsApiPlaylistsUrl)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            
-            if (apiResponse != null && !apiResponse.isEmpty() && 
-                apiResponse.contains("title") && apiResponse.contains("link")) {
-                logger.info("Successfully retrieved JSON data from JMS API, length: {}", apiResponse.length());
-                return apiResponse;
-            } else {
-                logger.warn("Received invalid response from JMS API, trying backup URL");
-            }
-        } catch (Exception e) {
-            logger.warn("Error fetching playlists from JMS API: {}", e.getMessage());
-        }
+        List<JmsPlaylistEntry> entries = new HedgedFetch<List<JmsPlaylistEntry>>("JMS playlist entries", hedgeDelay(),
+                this::validPlaylistEntries)
+                .source("api", fetchPlaylistEntriesMono(jmsApiPlaylistsUrl), Duration.ofMillis(apiTimeoutMs))
+                .source("backup", fetchPlaylistEntriesMono(jmsBackupUrl), Duration.ofMillis(backupTimeoutMs))
+                .execute(this::recordHedgeWinner)
+                .block();
         
-        // Try the backup URL as fallback
-        try {
-            String backupResponse = redirectAwareWebClient.get()
-                    .uri(jmsBackupUrl)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            
-            if (backupResponse != null && !backupResponse.isEmpty() && 
-                backupResponse.contains("title") && backupResponse.contains("link")) {
-                logger.info("Successfully retrieved JSON data from backup URL, length: {}", backupResponse.length());
-                return backupResponse;
-            }
-        } catch (Exception e) {
-            logger.warn("Error fetching playlists from backup URL: {}", e.getMessage());
+        if (entries != null) {
+            logger.info("Successfully retrieved {} playlist entries", entries.size());
+            return entries;
         }
         
-        // If we get here, we couldn't retrieve valid JSON data
-        logger.error("Failed to retrieve valid playlist JSON data from any source");
+        logger.error("Failed to retrieve valid playlist entries from any source");
         return null;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Whether the entries look like the playlist catalog (have titles and links)
+     */
+    private boolean validPlaylistEntries(List<JmsPlaylistEntry> entries) {
+        return entries.stream().anyMatch(entry -> entry.getTitle() != null && entry.getLink() != null);
+    }
+}
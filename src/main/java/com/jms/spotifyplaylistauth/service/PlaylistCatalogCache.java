@@ -0,0 +1,233 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory cache of each user's Spotify playlist catalog, keyed by Spotify user id
+ * so a refreshed access token still finds the user's catalog.
+ * Entries expire after a TTL and the least recently used catalogs are evicted
+ * once the configured number of users is exceeded. Each playlist's snapshot_id
+ * is remembered so a refresh can tell which playlists actually changed.
+ */
+public class PlaylistCatalogCache {
+    private static final Logger logger = LoggerFactory.getLogger(PlaylistCatalogCache.class);
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+
+    // A lock rather than synchronized methods, so virtual threads are never pinned while waiting for the cache
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Access-ordered so the eldest entry is always the least recently used catalog
+    private final LinkedHashMap<String, CatalogEntry> catalogs;
+
+    public PlaylistCatalogCache(long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.catalogs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CatalogEntry> eldest) {
+                if (size() > PlaylistCatalogCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the cached catalog of a user, or null if it is missing or expired
+     */
+    public List<SpotifyPlaylist> get(String userId) {
+        lock.lock();
+        try {
+            CatalogEntry entry = catalogs.get(userId);
+            if (entry == null || entry.isExpired(ttlMillis)) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return new ArrayList<>(entry.playlists);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Store a freshly downloaded catalog. Playlists whose snapshot_id did not change
+     * since the previous load keep their cached object.
+     * @return number of playlists that were new or had a different snapshot_id
+     */
+    public int put(String userId, List<SpotifyPlaylist> playlists) {
+        lock.lock();
+        try {
+            CatalogEntry previous = catalogs.get(userId);
+            CatalogEntry fresh = new CatalogEntry();
+            int stale = 0;
+
+            for (SpotifyPlaylist playlist : playlists) {
+                String id = playlist.getId();
+                String snapshotId = playlist.getSnapshotId();
+                SpotifyPlaylist cached = previous != null && id != null ? previous.byId.get(id) : null;
+
+                if (cached != null && snapshotId != null && snapshotId.equals(cached.getSnapshotId())) {
+                    fresh.add(cached);
+                } else {
+                    fresh.add(playlist);
+                    stale++;
+                }
+            }
+
+            if (previous != null) {
+                staleEntries.addAndGet(stale);
+                logger.debug("Refreshed playlist catalog: {} of {} playlists changed", stale, playlists.size());
+            }
+            catalogs.put(userId, fresh);
+            return stale;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write-through for a newly created playlist. Spotify lists new playlists first.
+     */
+    public void addPlaylist(String userId, SpotifyPlaylist playlist) {
+        lock.lock();
+        try {
+            CatalogEntry entry = catalogs.get(userId);
+            String id = playlist.getId();
+            if (entry == null || id == null || entry.byId.containsKey(id)) {
+                return;
+            }
+            entry.playlists.add(0, playlist);
+            entry.byId.put(id, playlist);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write-through for a deleted (unfollowed) playlist
+     */
+    public void removePlaylist(String userId, String playlistId) {
+        lock.lock();
+        try {
+            CatalogEntry entry = catalogs.get(userId);
+            if (entry == null) {
+                return;
+            }
+            SpotifyPlaylist removed = entry.byId.remove(playlistId);
+            if (removed != null) {
+                entry.playlists.remove(removed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record the new snapshot_id Spotify returned after modifying a playlist.
+     * The snapshot belongs to the playlist, so every cached catalog that lists it is updated.
+     */
+    public void updateSnapshotId(String playlistId, String snapshotId) {
+        if (snapshotId == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (CatalogEntry entry : catalogs.values()) {
+                SpotifyPlaylist cached = entry.byId.get(playlistId);
+                if (cached != null) {
+                    SpotifyPlaylist updated = cached.withSnapshotId(snapshotId);
+                    entry.byId.put(playlistId, updated);
+                    entry.playlists.set(entry.playlists.indexOf(cached), updated);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check whether the cached copy of a playlist differs from the given snapshot_id
+     */
+    public boolean isStale(String userId, String playlistId, String snapshotId) {
+        lock.lock();
+        try {
+            CatalogEntry entry = catalogs.get(userId);
+            SpotifyPlaylist cached = entry != null ? entry.byId.get(playlistId) : null;
+            return cached == null || snapshotId == null || !snapshotId.equals(cached.getSnapshotId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String userId) {
+        lock.lock();
+        try {
+            catalogs.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            catalogs.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counters used to size the cache
+     */
+    public Map<String, Object> getStats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("entries", catalogs.size());
+            stats.put("maxEntries", maxEntries);
+            stats.put("ttlSeconds", ttlMillis / 1000);
+            stats.put("hits", hits.get());
+            stats.put("misses", misses.get());
+            stats.put("evictions", evictions.get());
+            stats.put("stalePlaylists", staleEntries.get());
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class CatalogEntry {
+        private final long loadedAt = System.currentTimeMillis();
+        private final List<SpotifyPlaylist> playlists = new ArrayList<>();
+        private final Map<String, SpotifyPlaylist> byId = new HashMap<>();
+
+        private void add(SpotifyPlaylist playlist) {
+            playlists.add(playlist);
+            String id = playlist.getId();
+            if (id != null) {
+                byId.put(id, playlist);
+            }
+        }
+
+        private boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - loadedAt > ttlMillis;
+        }
+    }
+}
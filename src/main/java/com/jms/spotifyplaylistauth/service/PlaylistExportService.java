@@ -3,6 +3,9 @@ package com.jms.spotifyplaylistauth.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jms.spotifyplaylistauth.dto.JmsPlaylistEntry;
+import com.jms.spotifyplaylistauth.dto.PlaylistKey;
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,14 +57,14 @@ public class PlaylistExportService {
             logger.info("Exporting playlists for user ID: {}", userId);
 
             // Get all playlists from the user's Spotify account
-            List<Map<String, Object>> playlists = spotifyPlaylistService.getUserPlaylists(accessToken);
+            List<SpotifyPlaylist> playlists = spotifyPlaylistService.getUserPlaylists(accessToken);
             logger.info("Retrieved {} playlists from Spotify", playlists.size());
 
             // Log all playlists to debug what's available
             logger.debug("Listing all user's playlists from Spotify:");
-            for (Map<String, Object> playlist : playlists) {
-                String name = (String) playlist.get("name");
-                String id = (String) playlist.get("id");
+            for (SpotifyPlaylist playlist : playlists) {
+                String name = playlist.getName();
+                String id = playlist.getId();
                 if (name != null && (name.contains("Weekly Mix") || name.contains("JMS Mix"))) {
                     logger.info("  - {} ({})", name, id);
                 }
@@ -80,27 +83,28 @@ public class PlaylistExportService {
                 logger.warn("Could not retrieve existing playlist data, will generate new format: {}", e.getMessage());
             }
 
-            // Create a map to hold our combined playlists (existing + new)
-            Map<String, Map<String, Object>> combinedPlaylists = new HashMap<>();
+            // Combine recently created playlists, the rest of the user's playlists and the website's list, in
+            // that order. The first entry for each playlist wins, whichever spelling its name uses, so the latest
+            // Spotify data replaces what the website has.
+            List<Map<String, Object>> combinedPlaylists = new ArrayList<>();
+            PlaylistKeySet exportedKeys = new PlaylistKeySet(playlists.size() + existingPlaylistsList.size());
 
-            // Add existing JMS playlists first
-            for (Map<String, Object> playlist : existingPlaylistsList) {
-                String title = (String) playlist.get("title");
-                if (title != null) {
-                    combinedPlaylists.put(title, playlist);
-                    logger.debug("Added existing playlist from JMS: {}", title);
+            List<Map<String, Object>> recentPlaylists = spotifyPlaylistService.getRecentlyCreatedPlaylists(userId);
+            logger.info("Found {} recently created playlists for user", recentPlaylists.size());
+
+            for (Map<String, Object> recentPlaylist : recentPlaylists) {
+                String name = (String) recentPlaylist.get("name");
+                String id = (String) recentPlaylist.get("id");
+
+                if (name != null && id != null && addExportEntry(combinedPlaylists, exportedKeys, name, id)) {
+                    logger.info("Added recently created playlist to export: {}", name);
                 }
             }
 
-            // Filter for valid weekly mix or JMS playlists and add new ones
-            Pattern weeklyMixPattern = Pattern.compile("Weekly Mix (\\d{1,2}\\.\\d{2}\\.\\d{4})");
-            Pattern jmsMixPattern = Pattern.compile("JMS Mix (\\d+)");
-            // Pattern for the new format "JMS DD.MM.YY"
-            Pattern jmsDatePattern = Pattern.compile("JMS (\\d{1,2}\\.\\d{2}\\.\\d{2})");
-
-            for (Map<String, Object> playlist : playlists) {
-                String name = (String) playlist.get("name");
-                String id = (String) playlist.get("id");
+            // Add new Weekly Mix, JMS date and JMS Mix playlists, named the way the website names them
+            for (SpotifyPlaylist playlist : playlists) {
+                String name = playlist.getName();
+                String id = playlist.getId();
 
                 // Skip if name is null or empty
                 if (name == null || name.isEmpty() || id == null) {
@@ -112,116 +116,22 @@ public class PlaylistExportService {
                     logger.info("Found potential playlist for export: {} ({})", name, id);
                 }
 
-                // Check if it's a Weekly Mix, JMS Mix, or JMS date format
-                Matcher weeklyMatcher = weeklyMixPattern.matcher(name);
-                Matcher jmsMatcher = jmsMixPattern.matcher(name);
-                Matcher jmsDateMatcher = jmsDatePattern.matcher(name);
-
-                // Handle JMS date format (JMS DD.MM.YY) specifically
-                if (jmsDateMatcher.find()) {
-                    // Transform "JMS DD.MM.YY" to "Weekly Mix DD.MM.YYYY"
-                    String datePart = jmsDateMatcher.group(1); // Gets DD.MM.YY
-                    String[] dateParts = datePart.split("\\.");
-                    if (dateParts.length == 3) {
-                        String day = dateParts[0];
-                        String month = dateParts[1];
-                        String year = dateParts[2];
-                        // Convert 2-digit year to 4-digit (assuming 20XX)
-                        String fourDigitYear = "20" + year;
-                        name = "Weekly Mix " + day + "." + month + "." + fourDigitYear;
-                        logger.info("Transformed playlist name from {} to {}", playlist.get("name"), name);
-                    }
-                }
-
-                // Recheck with the potentially transformed name
-                weeklyMatcher = weeklyMixPattern.matcher(name);
-
-                if (weeklyMatcher.find() || jmsMatcher.find()) {
-                    // Always update with the latest Spotify data - don't skip if it already exists
-                    // Create the embed link
-                    String embedLink = "https://open.spotify.com/embed/playlist/" + id + "?utm_source=generator";
-
-                    // Determine tag based on playlist name
-                    List<String> tags = new ArrayList<>();
-                    tags.add("All");
-
-                    if (name.startsWith("Weekly Mix")) {
-                        tags.add("Weekly");
-                    } else if (name.startsWith("JMS Mix")) {
-                        tags.add("JMS");
-                    } else if (name.startsWith("JMS ")) {
-                        // For the original "JMS DD.MM.YY" format, we still want to add the Weekly tag
-                        // since it's transformed to "Weekly Mix"
-                        tags.add("Weekly");
-                    }
-
-                    // Create the playlist object
-                    Map<String, Object> playlistObject = new HashMap<>();
-                    playlistObject.put("title", name);
-                    playlistObject.put("link", embedLink);
-                    playlistObject.put("tag", tags);
-
-                    // Add to combined playlists
-                    combinedPlaylists.put(name, playlistObject);
+                if (addExportEntry(combinedPlaylists, exportedKeys, name, id)) {
                     logger.info("Added new playlist to export: {}", name);
                 }
             }
 
-            // Add recently created playlists that may not be in the combined list yet
-            List<Map<String, Object>> recentPlaylists = spotifyPlaylistService.getRecentlyCreatedPlaylists(userId);
-            logger.info("Found {} recently created playlists for user", recentPlaylists.size());
-
-            for (Map<String, Object> recentPlaylist : recentPlaylists) {
-                String name = (String) recentPlaylist.get("name");
-                String id = (String) recentPlaylist.get("id");
-
-                if (name != null && id != null) {
-                    // Check for JMS date format (JMS DD.MM.YY) first
-                    Matcher jmsDateMatcher = jmsDatePattern.matcher(name);
-                    if (jmsDateMatcher.find()) {
-                        // Transform "JMS DD.MM.YY" to "Weekly Mix DD.MM.YYYY"
-                        String datePart = jmsDateMatcher.group(1); // Gets DD.MM.YY
-                        String[] dateParts = datePart.split("\\.");
-                        if (dateParts.length == 3) {
-                            String day = dateParts[0];
-                            String month = dateParts[1];
-                            String year = dateParts[2];
-                            // Convert 2-digit year to 4-digit (assuming 20XX)
-                            String fourDigitYear = "20" + year;
-                            name = "Weekly Mix " + day + "." + month + "." + fourDigitYear;
-                            logger.info("Transformed recent playlist name from {} to {}", recentPlaylist.get("name"), name);
-                        }
-                    }
-
-                    // Recheck with the potentially transformed name
-                    Matcher weeklyMatcher = weeklyMixPattern.matcher(name);
-                    Matcher jmsMatcher = jmsMixPattern.matcher(name);
-
-                    if (weeklyMatcher.find() || jmsMatcher.find()) {
-                        logger.info("Processing recently created playlist: {} ({})", name, id);
-                        String embedLink = "https://open.spotify.com/embed/playlist/" + id + "?utm_source=generator";
-
-                        List<String> tags = new ArrayList<>();
-                        tags.add("All");
-
-                        if (name.startsWith("Weekly Mix")) {
-                            tags.add("Weekly");
-                        } else if (name.startsWith("JMS Mix")) {
-                            tags.add("JMS");
-                        } else if (name.startsWith("JMS ")) {
-                            // For the original "JMS DD.MM.YY" format, we still want to add the Weekly tag
-                            // since it's transformed to "Weekly Mix"
-                            tags.add("Weekly");
-                        }
-
-                        Map<String, Object> playlistObject = new HashMap<>();
-                        playlistObject.put("title", name);
-                        playlistObject.put("link", embedLink);
-                        playlistObject.put("tag", tags);
-
-                        combinedPlaylists.put(name, playlistObject);
-                        logger.info("Added recently created playlist to export: {}", name);
-                    }
+            // Add existing JMS playlists that are not in Spotify; titles that are not JMS names are kept once each
+            Set<String> otherTitles = new HashSet<>();
+            for (Map<String, Object> playlist : existingPlaylistsList) {
+                String title = (String) playlist.get("title");
+                if (title == null) {
+                    continue;
+                }
+                int key = PlaylistKey.findKey(title);
+                if (key != PlaylistKey.NO_KEY ? exportedKeys.add(key) : otherTitles.add(title)) {
+                    combinedPlaylists.add(playlist);
+                    logger.debug("Added existing playlist from JMS: {}", title);
                 }
             }
 
@@ -229,7 +139,7 @@ public class PlaylistExportService {
             logger.info("Combined playlists count: {}", combinedPlaylists.size());
 
             // Now sort by date and assign IDs
-            List<Map<String, Object>> sortedPlaylists = sortPlaylistsByDate(new ArrayList<>(combinedPlaylists.values()));
+            List<Map<String, Object>> sortedPlaylists = sortPlaylistsByDate(combinedPlaylists);
 
             // Create the final JSON array with proper IDs to match the provided format
             ArrayNode jsonArray = objectMapper.createArrayNode();
@@ -263,6 +173,44 @@ public class PlaylistExportService {
         }
     }
 
+    /**
+     * Add the export entry for a Spotify playlist, unless it is not a JMS playlist or the
+     * same playlist is already exported under any spelling of its name.
+     * "JMS DD.MM.YY" playlists are exported under their "Weekly Mix DD.MM.YYYY" name.
+     * @return true if an entry was added
+     */
+    private boolean addExportEntry(List<Map<String, Object>> combinedPlaylists, PlaylistKeySet exportedKeys,
+                                   String name, String id) {
+        int keyValue = PlaylistKey.findKey(name);
+        if (keyValue == PlaylistKey.NO_KEY) {
+            return false;
+        }
+        if (!exportedKeys.add(keyValue)) {
+            logger.debug("Skipping {}, the same playlist is already exported", name);
+            return false;
+        }
+        PlaylistKey key = PlaylistKey.of(keyValue);
+
+        // Weekly Mix and JMS Mix names are kept as they are
+        String title = name;
+        if (key.isWeekly() && !name.contains("Weekly Mix ")) {
+            title = key.toWebsiteName();
+            logger.info("Transformed playlist name from {} to {}", name, title);
+        }
+
+        // Determine tag based on playlist type
+        List<String> tags = new ArrayList<>();
+        tags.add("All");
+        tags.add(key.isMix() ? "JMS" : "Weekly");
+
+        Map<String, Object> playlistObject = new HashMap<>();
+        playlistObject.put("title", title);
+        playlistObject.put("link", "https://open.spotify.com/embed/playlist/" + id + "?utm_source=generator");
+        playlistObject.put("tag", tags);
+        combinedPlaylists.add(playlistObject);
+        return true;
+    }
+
     /**
      * Sort playlists by date, most recent first, with JMS Mix at end
      */
@@ -366,11 +314,17 @@ public class PlaylistExportService {
      */
     private List<Map<String, Object>> getExistingPlaylistsData() {
         try {
-            String jsonData = jmsWebsiteService.fetchPlaylistsJson();
-
-            if (jsonData != null && !jsonData.isEmpty()) {
-                List<Map<String, Object>> playlists = objectMapper.readValue(
-                        jsonData, objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class));
+            List<JmsPlaylistEntry> entries = jmsWebsiteService.fetchExistingPlaylistEntries();
+
+            if (entries != null && !entries.isEmpty()) {
+                List<Map<String, Object>> playlists = new ArrayList<>(entries.size());
+                for (JmsPlaylistEntry entry : entries) {
+                    Map<String, Object> playlist = new HashMap<>();
+                    playlist.put("title", entry.getTitle());
+                    playlist.put("link", entry.getLink());
+                    playlist.put("tag", entry.getTags());
+                    playlists.add(playlist);
+                }
 
                 logger.info("Successfully parsed JSON data for {} existing playlists", playlists.size());
                 return playlists;
@@ -0,0 +1,106 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.jms.spotifyplaylistauth.dto.PlaylistKey;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Existence index of playlists by their {@link PlaylistKey}, stored as primitive ints.
+ * Every spelling of a playlist name collapses to one entry, so lookups need neither
+ * name strings nor boxed keys. Open addressing with linear probing; not thread-safe.
+ */
+public class PlaylistKeySet {
+    private static final int EMPTY = PlaylistKey.NO_KEY;
+
+    private int[] slots;
+    private int size;
+
+    public PlaylistKeySet() {
+        this(16);
+    }
+
+    public PlaylistKeySet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, 8)) << 1;
+        slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+    }
+
+    /**
+     * Add the key of every name that is a JMS playlist name; other names are ignored
+     * @return this set
+     */
+    public PlaylistKeySet addNames(Collection<String> names) {
+        for (String name : names) {
+            add(PlaylistKey.parseKey(name));
+        }
+        return this;
+    }
+
+    /**
+     * @return true if the key was not in the set yet
+     */
+    public boolean add(int key) {
+        if (key == EMPTY) {
+            return false;
+        }
+        if ((size + 1) * 2 > slots.length) {
+            resize();
+        }
+        int mask = slots.length - 1;
+        int index = mix(key) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = key;
+        size++;
+        return true;
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        int index = mix(key) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Whether a playlist with this name, in any of its spellings, is in the set
+     */
+    public boolean containsName(String name) {
+        return contains(PlaylistKey.parseKey(name));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        int[] old = slots;
+        slots = new int[old.length * 2];
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+        for (int key : old) {
+            if (key != EMPTY) {
+                add(key);
+            }
+        }
+    }
+
+    // Consecutive epoch days would otherwise fill neighbouring slots
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,54 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Name to id lookup of a user's Spotify playlists, built once per batch of
+ * playlist creations and kept up to date as new playlists are created.
+ * If the user has several playlists with the same name the first one listed wins,
+ * matching the previous linear scan.
+ */
+public class PlaylistNameIndex {
+    private final Map<String, String> idsByName = new HashMap<>();
+
+    public PlaylistNameIndex(List<SpotifyPlaylist> playlists) {
+        for (SpotifyPlaylist playlist : playlists) {
+            String name = playlist.getName();
+            String id = playlist.getId();
+            if (name != null && id != null) {
+                idsByName.putIfAbsent(name, id);
+            }
+        }
+    }
+
+    /**
+     * @return the id of the playlist with this name, or null if there is none
+     */
+    public String findId(String name) {
+        return name != null ? idsByName.get(name) : null;
+    }
+
+    public boolean contains(String name) {
+        return findId(name) != null;
+    }
+
+    public void add(String name, String id) {
+        if (name != null && id != null) {
+            idsByName.putIfAbsent(name, id);
+        }
+    }
+
+    public void remove(String name) {
+        if (name != null) {
+            idsByName.remove(name);
+        }
+    }
+
+    public int size() {
+        return idsByName.size();
+    }
+}
@@ -0,0 +1,106 @@
+package com.jms.spotifyplaylistauth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Side-by-side timing of {@link PlaylistNameScanner} against the six-regex extraction it replaced,
+ * run over a generated page shaped like the JMS playlists page.
+ * The regex version is kept here only as the reference the scanner must agree with.
+ */
+public final class PlaylistNameScanComparison {
+
+    private static final Pattern PLAYLIST_NAME_PATTERN_1 = Pattern.compile("JMS\\s+(\\d{2}\\.\\d{2}\\.\\d{2})\\b");
+    private static final Pattern PLAYLIST_NAME_PATTERN_2 = Pattern.compile("\"name\":\"JMS\\s+(\\d{2}\\.\\d{2}\\.\\d{2})\"");
+    private static final Pattern PLAYLIST_NAME_PATTERN_3 = Pattern.compile("<title>JMS\\s+(\\d{2}\\.\\d{2}\\.\\d{2})");
+    private static final Pattern PLAYLIST_NAME_PATTERN_4 = Pattern.compile("JMS[_\\s]+(\\d{2}[._]\\d{2}[._]\\d{2})");
+    private static final Pattern PLAYLIST_NAME_PATTERN_5 = Pattern.compile("JMS Mix (\\d+)");
+    private static final Pattern PLAYLIST_NAME_PATTERN_6 = Pattern.compile("\"title\":\"JMS Mix (\\d+)\"");
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    private PlaylistNameScanComparison() {
+    }
+
+    /**
+     * Time both extractors over a generated page
+     * @param entries number of playlist cards on the page
+     * @param rounds measured rounds per extractor, after a short warm-up
+     */
+    public static Map<String, Object> compare(int entries, int rounds) {
+        String html = generatePage(entries);
+
+        Set<String> regexNames = extractWithRegexes(html);
+        Set<String> scannerNames = PlaylistNameScanner.scanText(html);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            extractWithRegexes(html);
+            PlaylistNameScanner.scanText(html);
+        }
+
+        long regexNanos = 0;
+        long scannerNanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            extractWithRegexes(html);
+            regexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            PlaylistNameScanner.scanText(html);
+            scannerNanos += System.nanoTime() - start;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pageBytes", html.getBytes(StandardCharsets.UTF_8).length);
+        result.put("rounds", rounds);
+        result.put("namesFound", scannerNames.size());
+        result.put("sameResult", regexNames.equals(scannerNames));
+        result.put("regexMicrosPerPage", regexNanos / 1000 / Math.max(rounds, 1));
+        result.put("scannerMicrosPerPage", scannerNanos / 1000 / Math.max(rounds, 1));
+        result.put("speedup", scannerNanos > 0 ? Math.round(regexNanos * 100.0 / scannerNanos) / 100.0 : 0);
+        return result;
+    }
+
+    /**
+     * The names the old six-regex extraction finds in the content
+     */
+    static Set<String> extractWithRegexes(String content) {
+        Set<String> playlistNames = new HashSet<>();
+        for (Pattern pattern : new Pattern[]{PLAYLIST_NAME_PATTERN_1, PLAYLIST_NAME_PATTERN_2,
+                PLAYLIST_NAME_PATTERN_3, PLAYLIST_NAME_PATTERN_4}) {
+            Matcher matcher = pattern.matcher(content);
+            while (matcher.find()) {
+                playlistNames.add("JMS " + matcher.group(1).replaceAll("[_]", "."));
+            }
+        }
+        for (Pattern pattern : new Pattern[]{PLAYLIST_NAME_PATTERN_5, PLAYLIST_NAME_PATTERN_6}) {
+            Matcher matcher = pattern.matcher(content);
+            while (matcher.find()) {
+                playlistNames.add("JMS Mix " + matcher.group(1));
+            }
+        }
+        return playlistNames;
+    }
+
+    private static String generatePage(int entries) {
+        StringBuilder html = new StringBuilder("<html><head><title>JMS 01.01.24 | Jurassic Music Society</title></head><body>\n");
+        for (int i = 0; i < entries; i++) {
+            String date = String.format("%02d.%02d.%02d", i % 28 + 1, i / 28 % 12 + 1, 20 + i / 336 % 10);
+            html.append("<div class=\"playlist-card\" data-index=\"").append(i).append("\">\n");
+            html.append("  <a href=\"https://open.spotify.com/playlist/abc").append(i).append("\">");
+            switch (i % 4) {
+                case 0 -> html.append("JMS ").append(date);
+                case 1 -> html.append("JMS_").append(date.replace('.', '_'));
+                case 2 -> html.append("JMS Mix ").append(i);
+                default -> html.append("Weekly picks - no JMS name here");
+            }
+            html.append("</a>\n  <p>Tracks shared by the society this week, curated from the group chat.</p>\n</div>\n");
+        }
+        html.append("<script>{\"name\":\"JMS 02.02.24\",\"title\":\"JMS Mix 1\"}</script></body></html>");
+        return html.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Single-pass scanner for JMS playlist names in website HTML.
+ * It recognises every shape the old six patterns looked for in one walk over the input:
+ * "JMS dd.mm.yy" (also inside "name":"..." and &lt;title&gt;), the underscore variants
+ * "JMS_dd_mm_yy", and "JMS Mix N" (also inside "title":"..."). Dates are normalised
+ * to "JMS dd.mm.yy".
+ * The state survives between chunks, so a streamed body can be fed piece by piece
+ * without holding the page. All the shapes are ASCII, so UTF-8 bytes are scanned
+ * directly without decoding.
+ */
+public class PlaylistNameScanner {
+
+    private static final int SEARCH = 0;
+    private static final int J = 1;
+    private static final int JM = 2;
+    private static final int JMS = 3;
+    private static final int SEPARATOR = 4;
+    private static final int DATE = 5;
+    private static final int MIX_M = 6;
+    private static final int MIX_I = 7;
+    private static final int MIX_X = 8;
+    private static final int MIX_SPACE = 9;
+    private static final int MIX_NUMBER = 10;
+
+    private final Set<String> playlistNames = new HashSet<>();
+    private final char[] date = new char[8];
+    private final StringBuilder mixNumber = new StringBuilder();
+
+    private int state = SEARCH;
+    private int datePosition;
+    private int separatorCount;
+    private boolean singleSpaceSeparator;
+
+    /**
+     * Scan a streamed body, releasing each buffer once it has been scanned
+     */
+    public static Mono<Set<String>> scan(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            PlaylistNameScanner scanner = new PlaylistNameScanner();
+            return body.doOnNext(buffer -> {
+                        try {
+                            scanner.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(scanner::finish));
+        });
+    }
+
+    /**
+     * Scan text that is already in memory
+     */
+    public static Set<String> scanText(CharSequence content) {
+        PlaylistNameScanner scanner = new PlaylistNameScanner();
+        scanner.feed(content);
+        return scanner.finish();
+    }
+
+    public void feed(DataBuffer buffer) {
+        int count = buffer.readableByteCount();
+        int start = buffer.readPosition();
+        for (int i = 0; i < count; i++) {
+            accept((char) (buffer.getByte(start + i) & 0xFF));
+        }
+    }
+
+    public void feed(CharSequence content) {
+        for (int i = 0, length = content.length(); i < length; i++) {
+            accept(content.charAt(i));
+        }
+    }
+
+    /**
+     * End of input; a mix number running up to the end still counts
+     */
+    public Set<String> finish() {
+        if (state == MIX_NUMBER) {
+            addMix();
+        }
+        state = SEARCH;
+        return playlistNames;
+    }
+
+    private void accept(char c) {
+        switch (state) {
+            case J:
+                if (c == 'M') {
+                    state = JM;
+                    return;
+                }
+                break;
+            case JM:
+                if (c == 'S') {
+                    state = JMS;
+                    return;
+                }
+                break;
+            case JMS:
+                if (isSeparator(c)) {
+                    separatorCount = 1;
+                    singleSpaceSeparator = c == ' ';
+                    state = SEPARATOR;
+                    return;
+                }
+                break;
+            case SEPARATOR:
+                if (isSeparator(c)) {
+                    separatorCount++;
+                    return;
+                }
+                if (isDigit(c)) {
+                    date[0] = c;
+                    datePosition = 1;
+                    state = DATE;
+                    return;
+                }
+                if (c == 'M' && separatorCount == 1 && singleSpaceSeparator) {
+                    state = MIX_M;
+                    return;
+                }
+                break;
+            case DATE:
+                // dd[._]dd[._]dd - separators sit at positions 2 and 5
+                boolean expectSeparator = datePosition == 2 || datePosition == 5;
+                if (expectSeparator ? (c == '.' || c == '_') : isDigit(c)) {
+                    date[datePosition++] = c == '_' ? '.' : c;
+                    if (datePosition == date.length) {
+                        playlistNames.add("JMS " + new String(date));
+                        state = SEARCH;
+                    }
+                    return;
+                }
+                break;
+            case MIX_M:
+                if (c == 'i') {
+                    state = MIX_I;
+                    return;
+                }
+                break;
+            case MIX_I:
+                if (c == 'x') {
+                    state = MIX_X;
+                    return;
+                }
+                break;
+            case MIX_X:
+                if (c == ' ') {
+                    state = MIX_SPACE;
+                    return;
+                }
+                break;
+            case MIX_SPACE:
+                if (isDigit(c)) {
+                    mixNumber.setLength(0);
+                    mixNumber.append(c);
+                    state = MIX_NUMBER;
+                    return;
+                }
+                break;
+            case MIX_NUMBER:
+                if (isDigit(c)) {
+                    mixNumber.append(c);
+                    return;
+                }
+                addMix();
+                break;
+            default:
+                break;
+        }
+
+        // No candidate (or the candidate just ended): this character may start a new one.
+        // None of the shapes contain a 'J' after their start, so no earlier position needs rescanning.
+        state = c == 'J' ? J : SEARCH;
+    }
+
+    private void addMix() {
+        playlistNames.add("JMS Mix " + mixNumber);
+        mixNumber.setLength(0);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // Matches the [_\s] class of the old patterns (\s is ASCII whitespace)
+    private static boolean isSeparator(char c) {
+        return c == '_' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
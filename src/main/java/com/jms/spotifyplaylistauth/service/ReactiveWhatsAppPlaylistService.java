@@ -0,0 +1,133 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.jms.spotifyplaylistauth.dto.FridayPlaylist;
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
+import com.jms.spotifyplaylistauth.service.whatsapp.ChatParseResult;
+import com.jms.spotifyplaylistauth.service.whatsapp.WhatsAppParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking version of the WhatsApp to Spotify pipeline.
+ * Parsing, catalog lookups and playlist creation are composed into a single
+ * Mono/Flux chain so no request thread waits on Spotify. Reading the upload
+ * and the JMS catalog lookup are blocking, so they run on the blocking-call scheduler
+ * (bounded elastic, or virtual threads when that execution mode is enabled).
+ */
+@Service
+public class ReactiveWhatsAppPlaylistService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveWhatsAppPlaylistService.class);
+
+    private final WhatsAppParser whatsAppParser;
+    private final WhatsAppPlaylistService whatsAppPlaylistService;
+    private final SpotifyPlaylistService spotifyPlaylistService;
+    private final JmsWebsiteService jmsWebsiteService;
+    private final Scheduler blockingCallScheduler;
+
+    @Autowired
+    public ReactiveWhatsAppPlaylistService(
+            WhatsAppParser whatsAppParser,
+            WhatsAppPlaylistService whatsAppPlaylistService,
+            SpotifyPlaylistService spotifyPlaylistService,
+            JmsWebsiteService jmsWebsiteService,
+            Scheduler blockingCallScheduler) {
+        this.whatsAppParser = whatsAppParser;
+        this.whatsAppPlaylistService = whatsAppPlaylistService;
+        this.spotifyPlaylistService = spotifyPlaylistService;
+        this.jmsWebsiteService = jmsWebsiteService;
+        this.blockingCallScheduler = blockingCallScheduler;
+    }
+
+    /**
+     * Parse a WhatsApp chat export and work out which Friday playlists are new.
+     * The chat, the JMS catalog and the user's Spotify playlists are read concurrently.
+     */
+    public Mono<FridayPlaylistPlan> processWhatsAppChatExport(MultipartFile file, String accessToken) {
+        Mono<ChatParseResult> fridayMessages = Mono
+                .fromCallable(() -> whatsAppParser.parseFridaySpotifyMessages(file))
+                .subscribeOn(blockingCallScheduler);
+
+        Mono<Set<String>> jmsPlaylistNames = Mono
+                .fromCallable(jmsWebsiteService::fetchExistingPlaylistNames)
+                .subscribeOn(blockingCallScheduler);
+
+        Mono<Set<String>> userPlaylistNames = spotifyPlaylistService.getUserPlaylistsReactive(accessToken)
+                .map(playlists -> playlists.stream()
+                        .map(SpotifyPlaylist::getName)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()));
+
+        return Mono.zip(fridayMessages, jmsPlaylistNames, userPlaylistNames)
+                .map(results -> new FridayPlaylistPlan(
+                        whatsAppPlaylistService.organizeNewPlaylists(results.getT1().messages(), results.getT2(), results.getT3()),
+                        results.getT1().dateFormat()));
+    }
+
+    /**
+     * Create the playlists in Spotify, one after another, emitting each one as it is created
+     */
+    public Flux<Map<String, Object>> createSpotifyPlaylists(List<FridayPlaylist> playlists, String accessToken) {
+        logger.info("Attempting to create {} playlists in Spotify", playlists.size());
+
+        return spotifyPlaylistService.getUserProfileReactive(accessToken)
+                .flatMapMany(userProfile -> {
+                    if (userProfile.isEmpty() || !userProfile.containsKey("id")) {
+                        logger.error("Unable to retrieve user profile for playlist creation");
+                        return Flux.<Map<String, Object>>error(new IllegalArgumentException("Unable to retrieve user profile - token may be invalid"));
+                    }
+
+                    String userId = (String) userProfile.get("id");
+                    spotifyPlaylistService.clearRecentlyCreatedPlaylists(userId);
+
+                    return spotifyPlaylistService.getUserPlaylistsReactive(accessToken, userId)
+                            .map(PlaylistNameIndex::new)
+                            .flatMapMany(nameIndex -> Flux.fromIterable(playlists)
+                                    .filter(playlist -> !playlist.getTrackUris().isEmpty())
+                                    // concatMap: one playlist at a time, so the name index is never updated concurrently
+                                    .concatMap(playlist -> spotifyPlaylistService
+                                            .createPlaylistWithTracksReactive(accessToken, userId, playlist, nameIndex)
+                                            .onErrorResume(e -> {
+                                                logger.error("Error creating playlist {}: {}", playlist.getName(), e.getMessage(), e);
+                                                return Mono.just(Collections.<String, Object>emptyMap());
+                                            })))
+                            .filter(createdPlaylist -> !createdPlaylist.isEmpty());
+                });
+    }
+
+    /**
+     * Process a WhatsApp chat export and create the new playlists in Spotify
+     */
+    public Mono<Map<String, Object>> processAndCreatePlaylists(MultipartFile file, String accessToken) {
+        return processWhatsAppChatExport(file, accessToken)
+                .flatMap(plan -> {
+                    List<FridayPlaylist> playlists = plan.playlists();
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("plannedPlaylists", playlists);
+                    result.put("dateFormat", plan.dateFormat().getPattern());
+
+                    if (playlists.isEmpty()) {
+                        result.put("success", false);
+                        result.put("message", "No new Friday playlists to create");
+                        return Mono.just(result);
+                    }
+
+                    return createSpotifyPlaylists(playlists, accessToken)
+                            .collectList()
+                            .map(createdPlaylists -> {
+                                logger.info("Successfully created {} playlists in Spotify", createdPlaylists.size());
+                                result.put("createdPlaylists", createdPlaylists);
+                                result.put("success", !createdPlaylists.isEmpty());
+                                return result;
+                            });
+                });
+    }
+}
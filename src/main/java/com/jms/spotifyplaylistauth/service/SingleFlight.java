@@ -0,0 +1,62 @@
+package com.jms.spotifyplaylistauth.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent calls: while a call for a key is in flight, further
+ * callers with the same key subscribe to that call instead of starting their own.
+ * The shared result is replayed, so a caller that joins just as the call completes still
+ * gets it. The key is released on that same completion (or failure), so the next caller
+ * starts afresh; nothing is cached beyond the lifetime of the call. The shared call is
+ * cancelled once every caller has cancelled, and the key is released with it.
+ */
+public class SingleFlight {
+    private final Map<String, Flight<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param key identifies identical calls (e.g. URL plus caller identity)
+     * @param call started only if no call with this key is in flight
+     */
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            Flight<T> flight = new Flight<>();
+            flight.shared = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, flight))
+                    .flux()
+                    .replay(1)
+                    .refCount()
+                    .singleOrEmpty();
+
+            Flight<?> running = inFlight.putIfAbsent(key, flight);
+            if (running != null) {
+                coalesced.incrementAndGet();
+                @SuppressWarnings("unchecked")
+                Mono<T> shared = (Mono<T>) running.shared;
+                return shared;
+            }
+            return flight.shared;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    private static class Flight<T> {
+        private Mono<T> shared;
+    }
+}
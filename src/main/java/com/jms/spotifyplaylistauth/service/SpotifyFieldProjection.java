@@ -0,0 +1,98 @@
+package com.jms.spotifyplaylistauth.service;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Projection profiles for Spotify reads, declared once in Spotify's fields filter syntax.
+ * Endpoints that accept the fields query parameter (the playlist track endpoints)
+ * get the filter sent with the request so Spotify trims the payload. Endpoints that
+ * do not (/me and /me/playlists) are projected on our side: the listing is bound to
+ * the SpotifyPlaylist DTO and the profile map is reduced to the top-level fields here.
+ */
+public enum SpotifyFieldProjection {
+    PLAYLIST_LISTING("next,total,items(id,name,snapshot_id,tracks(total))", false),
+    PLAYLIST_TRACK_COUNT("total", true),
+    PLAYLIST_TRACKS("next,total,items(track(uri))", true),
+    USER_PROFILE("id,display_name,email,images", false);
+
+    private final String fields;
+    private final boolean serverSide;
+    private final Set<String> topLevelFields;
+
+    SpotifyFieldProjection(String fields, boolean serverSide) {
+        this.fields = fields;
+        this.serverSide = serverSide;
+        this.topLevelFields = parseTopLevelFields(fields);
+    }
+
+    public String getFields() {
+        return fields;
+    }
+
+    /**
+     * Whether Spotify applies this filter itself (true) or we project the response (false)
+     */
+    public boolean isServerSide() {
+        return serverSide;
+    }
+
+    /**
+     * Add the fields filter to a request URL when the endpoint supports it
+     */
+    public String apply(String url) {
+        if (!serverSide || url.contains("fields=")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "fields=" + fields;
+    }
+
+    /**
+     * Keep only the top-level fields of this profile from a decoded JSON object
+     */
+    public Map<String, Object> project(Map<String, Object> json) {
+        if (json == null || json.isEmpty()) {
+            return json;
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : topLevelFields) {
+            if (json.containsKey(field)) {
+                projected.put(field, json.get(field));
+            }
+        }
+        return projected;
+    }
+
+    private static Set<String> parseTopLevelFields(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        for (char c : fields.toCharArray()) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && c == ',') {
+                addFieldName(names, current);
+            } else if (depth == 0) {
+                current.append(c);
+            }
+        }
+        addFieldName(names, current);
+        return names;
+    }
+
+    private static void addFieldName(Set<String> names, StringBuilder current) {
+        String name = current.toString().trim();
+        int dot = name.indexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        if (!name.isEmpty()) {
+            names.add(name);
+        }
+        current.setLength(0);
+    }
+}
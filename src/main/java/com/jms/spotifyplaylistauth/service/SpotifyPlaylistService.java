@@ -1,17 +1,23 @@
 package com.jms.spotifyplaylistauth.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jms.spotifyplaylistauth.config.SpotifyConfig;
 import com.jms.spotifyplaylistauth.dto.FridayPlaylist;
+import com.jms.spotifyplaylistauth.dto.SpotifyPage;
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
+import com.jms.spotifyplaylistauth.dto.TrackAppendResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -19,15 +25,27 @@ import java.util.stream.Collectors;
 public class SpotifyPlaylistService {
     private static final Logger logger = LoggerFactory.getLogger(SpotifyPlaylistService.class);
 
+    // Spotify accepts at most 100 URIs per add-items request
+    private static final int MAX_TRACKS_PER_REQUEST = 100;
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<SpotifyPage<SpotifyPlaylist>> PLAYLIST_PAGE = new ParameterizedTypeReference<>() {};
+
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    private final SpotifyConfig spotifyConfig;
+    private final PlaylistCatalogCache playlistCatalogCache;
+    // Concurrent profile reads with the same token share one /me call
+    private final SingleFlight profileReads = new SingleFlight();
 
     private final Map<String, List<Map<String, Object>>> recentlyCreatedPlaylists = new ConcurrentHashMap<>();
 
     @Autowired
-    public SpotifyPlaylistService(WebClient webClient) {
+    public SpotifyPlaylistService(WebClient webClient, SpotifyConfig spotifyConfig) {
         this.webClient = webClient;
-        this.objectMapper = new ObjectMapper();
+        this.spotifyConfig = spotifyConfig;
+        this.playlistCatalogCache = new PlaylistCatalogCache(
+                spotifyConfig.getPlaylistCacheTtlSeconds() * 1000L,
+                spotifyConfig.getPlaylistCacheMaxUsers());
     }
 
     public void trackCreatedPlaylist(String userId, Map<String, Object> playlistInfo) {
@@ -62,7 +80,7 @@ public class SpotifyPlaylistService {
             String playlistId = (String) playlist.get("id");
             String playlistName = (String) playlist.get("name");
             if (playlistId != null && !playlistId.isEmpty()) {
-                if (deletePlaylist(accessToken, playlistId)) {
+                if (deletePlaylist(accessToken, userId, playlistId)) {
                     undonePlaylistNames.add(playlistName);
                 } else {
                     remainingPlaylists.add(playlist);
@@ -78,154 +96,424 @@ public class SpotifyPlaylistService {
         return undonePlaylistNames;
     }
 
-    @SuppressWarnings("unchecked")
-    public List<Map<String, Object>> getUserPlaylists(String accessToken) {
-        List<Map<String, Object>> allPlaylists = new ArrayList<>();
-        String nextUrl = "https://api.spotify.com/v1/me/playlists?limit=50";
+    /**
+     * Retrieve all of the user's playlists in Spotify order, served from the
+     * catalog cache when a fresh copy is available. The user is looked up with /me
+     * first, since the cache is keyed by Spotify user id.
+     */
+    public List<SpotifyPlaylist> getUserPlaylists(String accessToken) {
+        return getUserPlaylistsReactive(accessToken).block();
+    }
 
-        try {
-            while (nextUrl != null && !nextUrl.isEmpty()) {
-                String responseBody = webClient.get()
-                        .uri(nextUrl)
-                        .header("Authorization", "Bearer " + accessToken)
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .block();
-
-                if (responseBody == null || responseBody.isEmpty()) {
-                    break;
-                }
+    /**
+     * Variant of {@link #getUserPlaylists(String)} for callers that already know the user id
+     */
+    public List<SpotifyPlaylist> getUserPlaylists(String accessToken, String userId) {
+        return getUserPlaylistsReactive(accessToken, userId).block();
+    }
 
-                Map<String, Object> response = objectMapper.readValue(responseBody, Map.class);
+    /**
+     * Non-blocking variant of {@link #getUserPlaylists(String)}.
+     * Emits an empty list if Spotify could not be read; failed reads are not cached.
+     */
+    public Mono<List<SpotifyPlaylist>> getUserPlaylistsReactive(String accessToken) {
+        return getUserProfileReactive(accessToken)
+                .flatMap(userProfile -> getUserPlaylistsReactive(accessToken, (String) userProfile.get("id")))
+                .onErrorResume(e -> {
+                    logger.error("Error retrieving user playlists: {}", e.getMessage(), e);
+                    return Mono.just(Collections.<SpotifyPlaylist>emptyList());
+                });
+    }
 
-                if (response != null && response.containsKey("items")) {
-                    List<Map<String, Object>> items = (List<Map<String, Object>>) response.get("items");
-                    allPlaylists.addAll(items);
-                    nextUrl = (String) response.get("next");
-                } else {
-                    nextUrl = null;
-                }
+    /**
+     * Non-blocking variant of {@link #getUserPlaylists(String, String)}
+     * @param userId Spotify user id the catalog is cached under, or null to read Spotify without the cache
+     */
+    public Mono<List<SpotifyPlaylist>> getUserPlaylistsReactive(String accessToken, String userId) {
+        return Mono.defer(() -> {
+            List<SpotifyPlaylist> cached = userId != null ? playlistCatalogCache.get(userId) : null;
+            if (cached != null) {
+                logger.debug("Serving {} playlists from catalog cache", cached.size());
+                return Mono.just(cached);
             }
-            return allPlaylists;
-        } catch (WebClientResponseException | IOException e) {
+            return fetchAllPlaylists(accessToken)
+                    .doOnNext(playlists -> {
+                        if (userId != null) {
+                            playlistCatalogCache.put(userId, playlists);
+                        }
+                    });
+        }).onErrorResume(e -> {
             logger.error("Error retrieving user playlists: {}", e.getMessage(), e);
-            return Collections.emptyList();
+            return Mono.just(Collections.<SpotifyPlaylist>emptyList());
+        });
+    }
+
+    /**
+     * Drop the user's cached catalog so the next read goes to Spotify
+     */
+    public void invalidatePlaylistCache(String userId) {
+        playlistCatalogCache.invalidate(userId);
+    }
+
+    /**
+     * Check whether a playlist changed compared to the cached snapshot_id
+     */
+    public boolean isPlaylistStale(String userId, String playlistId, String snapshotId) {
+        return playlistCatalogCache.isStale(userId, playlistId, snapshotId);
+    }
+
+    public Map<String, Object> getPlaylistCacheStats() {
+        return playlistCatalogCache.getStats();
+    }
+
+    /**
+     * Download all of the user's playlists in Spotify order.
+     * The first page is read to learn the total, then the remaining offset pages
+     * are requested concurrently (bounded by the configured concurrency).
+     */
+    private Mono<List<SpotifyPlaylist>> fetchAllPlaylists(String accessToken) {
+        int pageSize = spotifyConfig.getPlaylistPageSize();
+
+        return playlistPageMono(accessToken, playlistPageUrl(pageSize, 0))
+                .flatMap(firstPage -> {
+                    List<SpotifyPlaylist> firstItems = firstPage.getItems();
+
+                    if (firstPage.getTotal() == null) {
+                        // No total reported - fall back to following the next links one by one
+                        logger.debug("Playlist page has no total, following next links serially");
+                        return followNextPages(accessToken, firstPage.getNext())
+                                .map(rest -> {
+                                    List<SpotifyPlaylist> allPlaylists = new ArrayList<>(firstItems);
+                                    allPlaylists.addAll(rest);
+                                    return allPlaylists;
+                                });
+                    }
+
+                    int total = firstPage.getTotal();
+                    List<Integer> offsets = new ArrayList<>();
+                    for (int offset = pageSize; offset < total; offset += pageSize) {
+                        offsets.add(offset);
+                    }
+
+                    int concurrency = spotifyConfig.getPlaylistFetchConcurrency();
+                    logger.debug("Fetching {} more playlist pages with concurrency {}", offsets.size(), concurrency);
+
+                    // flatMapSequential keeps page order while allowing pages to be fetched in parallel
+                    return Flux.fromIterable(offsets)
+                            .flatMapSequential(offset -> playlistPageMono(accessToken, playlistPageUrl(pageSize, offset))
+                                    .map(SpotifyPage::getItems), concurrency)
+                            .collectList()
+                            .map(pages -> {
+                                List<SpotifyPlaylist> allPlaylists = new ArrayList<>(total);
+                                allPlaylists.addAll(firstItems);
+                                pages.forEach(allPlaylists::addAll);
+                                logger.debug("Retrieved {} of {} playlists", allPlaylists.size(), total);
+                                return allPlaylists;
+                            });
+                })
+                .defaultIfEmpty(new ArrayList<>());
+    }
+
+    private Mono<List<SpotifyPlaylist>> followNextPages(String accessToken, String nextUrl) {
+        if (nextUrl == null || nextUrl.isEmpty()) {
+            return Mono.just(new ArrayList<>());
         }
+        return playlistPageMono(accessToken, nextUrl)
+                .expand(page -> page.hasNext()
+                        ? playlistPageMono(accessToken, page.getNext())
+                        : Mono.empty())
+                .concatMapIterable(SpotifyPage::getItems)
+                .collectList();
+    }
+
+    private String playlistPageUrl(int pageSize, int offset) {
+        return "https://api.spotify.com/v1/me/playlists?limit=" + pageSize + "&offset=" + offset;
+    }
+
+    /**
+     * Read one page of playlists. The body is decoded straight from the response
+     * buffers into the typed page, skipping every field the DTOs do not declare.
+     * Every page URL, offset or next link, goes through the listing projection here.
+     */
+    private Mono<SpotifyPage<SpotifyPlaylist>> playlistPageMono(String accessToken, String url) {
+        return webClient.get()
+                .uri(SpotifyFieldProjection.PLAYLIST_LISTING.apply(url))
+                .header("Authorization", "Bearer " + accessToken)
+                .retrieve()
+                .bodyToMono(PLAYLIST_PAGE);
     }
 
     public Set<String> getUserPlaylistNames(String accessToken) {
-        List<Map<String, Object>> playlists = getUserPlaylists(accessToken);
+        List<SpotifyPlaylist> playlists = getUserPlaylists(accessToken);
         return playlists.stream()
-                .map(playlist -> (String) playlist.get("name"))
+                .map(SpotifyPlaylist::getName)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
     }
 
     public Map<String, Object> createPlaylist(String accessToken, String userId, String name, String description) {
-        try {
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("name", name);
-            requestBody.put("description", description);
-            requestBody.put("public", false);
+        return createPlaylistReactive(accessToken, userId, name, description).block();
+    }
 
-            Map<String, Object> response = webClient.post()
-                    .uri("https://api.spotify.com/v1/users/" + userId + "/playlists")
-                    .header("Authorization", "Bearer " + accessToken)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
+    /**
+     * Non-blocking variant of {@link #createPlaylist}. Emits an empty map if Spotify rejects the request.
+     */
+    public Mono<Map<String, Object>> createPlaylistReactive(String accessToken, String userId, String name, String description) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("name", name);
+        requestBody.put("description", description);
+        requestBody.put("public", false);
+
+        return webClient.post()
+                .uri("https://api.spotify.com/v1/users/" + userId + "/playlists")
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Content-Type", "application/json")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .doOnNext(response -> {
+                    if (response.containsKey("id")) {
+                        trackCreatedPlaylist(userId, response);
+                        playlistCatalogCache.addPlaylist(userId, new SpotifyPlaylist(
+                                (String) response.get("id"), (String) response.get("name"), (String) response.get("snapshot_id")));
+                    }
+                })
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    logger.error("Error creating playlist: {}", e.getMessage(), e);
+                    return Mono.just(Collections.<String, Object>emptyMap());
+                });
+    }
+
+    public boolean addTracksToPlaylist(String accessToken, String playlistId, List<String> trackUris) {
+        TrackAppendResult result = appendTracks(accessToken, playlistId, trackUris);
+        return result.isComplete();
+    }
+
+    /**
+     * Append tracks to the end of an existing playlist in chunks of 100 URIs.
+     * Chunks are sent in order without positions, so no track count lookup is needed first.
+     */
+    public TrackAppendResult appendTracks(String accessToken, String playlistId, List<String> trackUris) {
+        return appendTracks(accessToken, playlistId, trackUris, -1);
+    }
+
+    /**
+     * Add tracks in chunks of 100 URIs, each written at an explicit position so
+     * the original order is kept. Chunks are sent one after another; once a chunk
+     * fails the rest are reported as not sent, so a retry can pick up from the
+     * first failed chunk without adding any track twice.
+     * @param startPosition playlist position of the first track, or -1 to append without positions
+     */
+    public TrackAppendResult appendTracks(String accessToken, String playlistId, List<String> trackUris, int startPosition) {
+        return appendTracksReactive(accessToken, playlistId, trackUris, startPosition).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #appendTracks(String, String, List, int)}
+     */
+    public Mono<TrackAppendResult> appendTracksReactive(String accessToken, String playlistId, List<String> trackUris,
+                                                        int startPosition) {
+        List<TrackAppendResult.Chunk> chunks = new ArrayList<>();
+        for (int offset = 0; offset < trackUris.size(); offset += MAX_TRACKS_PER_REQUEST) {
+            List<String> chunkUris = new ArrayList<>(
+                    trackUris.subList(offset, Math.min(offset + MAX_TRACKS_PER_REQUEST, trackUris.size())));
+            int position = startPosition >= 0 ? startPosition + offset : -1;
+            chunks.add(new TrackAppendResult.Chunk(position, chunkUris, false, null, null));
+        }
+        return sendChunks(accessToken, playlistId, chunks);
+    }
 
-            if (response != null && response.containsKey("id")) {
-                trackCreatedPlaylist(userId, response);
+    /**
+     * Resend only the chunks that failed (or were not sent) in a previous append
+     */
+    public TrackAppendResult retryFailedChunks(String accessToken, TrackAppendResult previous) {
+        TrackAppendResult result = new TrackAppendResult(previous.getPlaylistId());
+        for (TrackAppendResult.Chunk chunk : previous.getChunks()) {
+            if (chunk.isSuccess()) {
+                result.addChunk(chunk);
             }
-            return response;
-        } catch (WebClientResponseException e) {
-            logger.error("Error creating playlist: {}", e.getMessage(), e);
-            return Collections.emptyMap();
         }
+        TrackAppendResult retried = sendChunks(accessToken, previous.getPlaylistId(), previous.getFailedChunks()).block();
+        if (retried != null) {
+            retried.getChunks().forEach(result::addChunk);
+        }
+        return result;
     }
 
-    public boolean addTracksToPlaylist(String accessToken, String playlistId, List<String> trackUris) {
-        try {
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("uris", trackUris);
-            webClient.post()
-                    .uri("https://api.spotify.com/v1/playlists/" + playlistId + "/tracks")
-                    .header("Authorization", "Bearer " + accessToken)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-            return true;
-        } catch (WebClientResponseException e) {
-            logger.error("Error adding tracks to playlist: {}", e.getMessage(), e);
-            return false;
+    private Mono<TrackAppendResult> sendChunks(String accessToken, String playlistId, List<TrackAppendResult.Chunk> chunks) {
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> {
+                    if (failed.get()) {
+                        return Mono.just(new TrackAppendResult.Chunk(chunk.getPosition(), chunk.getTrackUris(),
+                                false, null, "Not sent because an earlier chunk failed"));
+                    }
+                    return postTrackChunk(accessToken, playlistId, chunk.getTrackUris(), chunk.getPosition())
+                            .map(snapshotId -> new TrackAppendResult.Chunk(chunk.getPosition(), chunk.getTrackUris(),
+                                    true, snapshotId, null))
+                            .onErrorResume(e -> {
+                                failed.set(true);
+                                logger.error("Error adding {} tracks at position {} to playlist {}: {}",
+                                        chunk.getTrackUris().size(), chunk.getPosition(), playlistId, e.getMessage());
+                                return Mono.just(new TrackAppendResult.Chunk(chunk.getPosition(), chunk.getTrackUris(),
+                                        false, null, e.getMessage()));
+                            });
+                })
+                .collectList()
+                .map(sent -> {
+                    TrackAppendResult result = new TrackAppendResult(playlistId);
+                    sent.forEach(result::addChunk);
+
+                    playlistCatalogCache.updateSnapshotId(playlistId, result.getSnapshotId());
+                    if (!result.isComplete()) {
+                        logger.error("Added {} tracks to playlist {} but {} of {} chunks failed",
+                                result.getAddedTrackCount(), playlistId, result.getFailedChunks().size(), result.getChunks().size());
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Post one chunk of track URIs. 429 replies are retried by SpotifyRateGovernor,
+     * so an error here means the chunk was not added.
+     * @return the snapshot id of the playlist after the add
+     */
+    private Mono<String> postTrackChunk(String accessToken, String playlistId, List<String> trackUris, int position) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("uris", trackUris);
+        if (position >= 0) {
+            requestBody.put("position", position);
         }
+
+        return webClient.post()
+                .uri("https://api.spotify.com/v1/playlists/" + playlistId + "/tracks")
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Content-Type", "application/json")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .map(response -> {
+                    Object snapshotId = response.get("snapshot_id");
+                    return snapshotId != null ? snapshotId.toString() : "";
+                });
+    }
+
+    /**
+     * Build a name to id index of the user's current playlists, for use across a batch of creations
+     */
+    public PlaylistNameIndex buildPlaylistNameIndex(String accessToken, String userId) {
+        return new PlaylistNameIndex(getUserPlaylists(accessToken, userId));
     }
 
     // ** RESTORED THIS METHOD TO ITS ORIGINAL STATE **
     public Map<String, Object> createPlaylistWithTracks(String accessToken, String userId, FridayPlaylist playlist) {
-        logger.info("Creating new playlist '{}' with {} tracks", playlist.getName(), playlist.getTrackUris().size());
+        return createPlaylistWithTracks(accessToken, userId, playlist, buildPlaylistNameIndex(accessToken, userId));
+    }
 
-        List<Map<String, Object>> existingPlaylists = getUserPlaylists(accessToken);
-        String existingPlaylistId = null;
+    /**
+     * Create a playlist (or add to an existing one with the same name) using a prebuilt name index.
+     * The index is updated with any playlist created here.
+     */
+    public Map<String, Object> createPlaylistWithTracks(String accessToken, String userId, FridayPlaylist playlist,
+                                                        PlaylistNameIndex nameIndex) {
+        return createPlaylistWithTracksReactive(accessToken, userId, playlist, nameIndex).block();
+    }
 
-        for (Map<String, Object> existingPlaylist : existingPlaylists) {
-            String name = (String) existingPlaylist.get("name");
-            if (name != null && name.equals(playlist.getName())) {
-                existingPlaylistId = (String) existingPlaylist.get("id");
-                logger.info("Found existing playlist with same name: {} ({})", name, existingPlaylistId);
-                break;
-            }
-        }
+    /**
+     * Non-blocking variant of {@link #createPlaylistWithTracks(String, String, FridayPlaylist, PlaylistNameIndex)}.
+     * Emits an empty map if the playlist could not be created; otherwise the playlist map also
+     * reports which tracks were added and which chunks failed.
+     */
+    public Mono<Map<String, Object>> createPlaylistWithTracksReactive(String accessToken, String userId,
+                                                                      FridayPlaylist playlist, PlaylistNameIndex nameIndex) {
+        logger.info("Creating new playlist '{}' with {} tracks", playlist.getName(), playlist.getTrackUris().size());
 
-        Map<String, Object> createdPlaylist;
+        String existingPlaylistId = nameIndex.findId(playlist.getName());
 
         if (existingPlaylistId != null) {
-            createdPlaylist = new HashMap<>();
-            createdPlaylist.put("id", existingPlaylistId);
-            createdPlaylist.put("name", playlist.getName());
+            logger.info("Found existing playlist with same name: {} ({})", playlist.getName(), existingPlaylistId);
+
+            Map<String, Object> existingPlaylist = new HashMap<>();
+            existingPlaylist.put("id", existingPlaylistId);
+            existingPlaylist.put("name", playlist.getName());
+
+            // Appended without positions: the chunks go out in order, so they land at the end as they are
+            return appendTracksReactive(accessToken, existingPlaylistId, playlist.getTrackUris(), -1)
+                    .map(result -> {
+                        if (result.isComplete()) {
+                            trackCreatedPlaylist(userId, existingPlaylist);
+                        }
+                        return withAppendResult(existingPlaylist, result);
+                    });
+        }
 
-            if (addTracksToPlaylist(accessToken, existingPlaylistId, playlist.getTrackUris())) {
-                trackCreatedPlaylist(userId, createdPlaylist);
-            }
-        } else {
-            createdPlaylist = createPlaylist(
-                    accessToken,
-                    userId,
-                    playlist.getName(),
-                    "Friday Spotify links from WhatsApp group chat"
-            );
-
-            if (createdPlaylist != null && createdPlaylist.containsKey("id")) {
-                String playlistId = (String) createdPlaylist.get("id");
-                addTracksToPlaylist(accessToken, playlistId, playlist.getTrackUris());
-            } else {
-                return Collections.emptyMap();
-            }
+        return createPlaylistReactive(accessToken, userId, playlist.getName(), "Friday Spotify links from WhatsApp group chat")
+                .flatMap(createdPlaylist -> {
+                    if (!createdPlaylist.containsKey("id")) {
+                        return Mono.just(Collections.<String, Object>emptyMap());
+                    }
+                    String playlistId = (String) createdPlaylist.get("id");
+                    nameIndex.add(playlist.getName(), playlistId);
+                    // A new playlist is empty, so the tracks start at position 0
+                    return appendTracksReactive(accessToken, playlistId, playlist.getTrackUris(), 0)
+                            .map(result -> withAppendResult(createdPlaylist, result));
+                })
+                .defaultIfEmpty(Collections.emptyMap());
+    }
+
+    /**
+     * Copy of the playlist map with the outcome of adding its tracks: "addedTracks", "failedTracks"
+     * and "failedChunks" (position, trackCount and error of each chunk that was not added)
+     */
+    private Map<String, Object> withAppendResult(Map<String, Object> playlistInfo, TrackAppendResult result) {
+        List<Map<String, Object>> failedChunks = new ArrayList<>();
+        int failedTracks = 0;
+        for (TrackAppendResult.Chunk chunk : result.getFailedChunks()) {
+            Map<String, Object> failedChunk = new LinkedHashMap<>();
+            failedChunk.put("position", chunk.getPosition());
+            failedChunk.put("trackCount", chunk.getTrackUris().size());
+            failedChunk.put("error", chunk.getError());
+            failedChunks.add(failedChunk);
+            failedTracks += chunk.getTrackUris().size();
         }
 
-        return createdPlaylist;
+        Map<String, Object> outcome = new HashMap<>(playlistInfo);
+        outcome.put("addedTracks", result.getAddedTrackCount());
+        outcome.put("failedTracks", failedTracks);
+        outcome.put("failedChunks", failedChunks);
+        return outcome;
     }
 
     public Map<String, Object> getUserProfile(String accessToken) {
-        try {
-            return webClient.get()
-                    .uri("https://api.spotify.com/v1/me")
-                    .header("Authorization", "Bearer " + accessToken)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-        } catch (WebClientResponseException e) {
-            logger.error("HTTP Error retrieving user profile: {} {}", e.getStatusCode(), e.getStatusText());
-            return Collections.emptyMap();
-        }
+        return getUserProfileReactive(accessToken).block();
     }
 
-    public boolean deletePlaylist(String accessToken, String playlistId) {
+    /**
+     * Non-blocking variant of {@link #getUserProfile(String)}. Emits an empty map on HTTP errors.
+     * Concurrent calls with the same token share one request and its decoded profile.
+     */
+    public Mono<Map<String, Object>> getUserProfileReactive(String accessToken) {
+        return profileReads.execute(accessToken, () -> webClient.get()
+                .uri(SpotifyFieldProjection.USER_PROFILE.apply("https://api.spotify.com/v1/me"))
+                .header("Authorization", "Bearer " + accessToken)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .map(SpotifyFieldProjection.USER_PROFILE::project)
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    logger.error("HTTP Error retrieving user profile: {} {}", e.getStatusCode(), e.getStatusText());
+                    return Mono.just(Collections.<String, Object>emptyMap());
+                }));
+    }
+
+    /**
+     * Total and coalesced profile reads
+     */
+    public Map<String, Object> getProfileReadStats() {
+        return profileReads.getStats();
+    }
+
+    public boolean deletePlaylist(String accessToken, String userId, String playlistId) {
         try {
             webClient.delete()
                     .uri("https://api.spotify.com/v1/playlists/" + playlistId + "/followers")
@@ -233,6 +521,7 @@ public class SpotifyPlaylistService {
                     .retrieve()
                     .bodyToMono(Void.class)
                     .block();
+            playlistCatalogCache.removePlaylist(userId, playlistId);
             return true;
         } catch (WebClientResponseException e) {
             logger.error("Error deleting playlist {}: {} {}", playlistId, e.getStatusCode(), e.getStatusText());
@@ -240,15 +529,15 @@ public class SpotifyPlaylistService {
         }
     }
 
-    public int deletePlaylists(String accessToken, String namePattern) {
-        List<Map<String, Object>> playlists = getUserPlaylists(accessToken);
+    public int deletePlaylists(String accessToken, String userId, String namePattern) {
+        List<SpotifyPlaylist> playlists = getUserPlaylists(accessToken, userId);
         int deletedCount = 0;
         Pattern pattern = Pattern.compile(namePattern);
-        for (Map<String, Object> playlist : playlists) {
-            String name = (String) playlist.get("name");
-            String id = (String) playlist.get("id");
+        for (SpotifyPlaylist playlist : playlists) {
+            String name = playlist.getName();
+            String id = playlist.getId();
             if (name != null && pattern.matcher(name).matches() && id != null) {
-                if (deletePlaylist(accessToken, id)) {
+                if (deletePlaylist(accessToken, userId, id)) {
                     deletedCount++;
                 }
             }
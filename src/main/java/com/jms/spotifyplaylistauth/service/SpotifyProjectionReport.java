@@ -0,0 +1,112 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jms.spotifyplaylistauth.config.SpotifyConfig;
+import com.jms.spotifyplaylistauth.dto.SpotifyPage;
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures what each {@link SpotifyFieldProjection} profile saves against live Spotify reads.
+ * A diagnostic only, so it exists in the dev and test profiles alongside the debug pages.
+ */
+@Service
+@Profile({"dev", "test"})
+public class SpotifyProjectionReport {
+    private static final Logger logger = LoggerFactory.getLogger(SpotifyProjectionReport.class);
+
+    // Tracks per page in the track reads, as many as Spotify returns
+    private static final int TRACK_PAGE_SIZE = 100;
+
+    private final WebClient webClient;
+    private final SpotifyConfig spotifyConfig;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SpotifyProjectionReport(WebClient webClient, SpotifyConfig spotifyConfig, ObjectMapper objectMapper) {
+        this.webClient = webClient;
+        this.spotifyConfig = spotifyConfig;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Every read is made once in full and once projected, and the payload sizes are compared.
+     * For profiles projected on our side the projected size is the serialised form of what we keep.
+     * @param playlistId playlist used for the track reads, or null to use the user's first playlist
+     */
+    public Map<String, Object> measure(String accessToken, String playlistId) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        ObjectWriter compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+        try {
+            String listingUrl = "https://api.spotify.com/v1/me/playlists?limit=" + spotifyConfig.getPlaylistPageSize() + "&offset=0";
+            byte[] fullListing = rawResponse(accessToken, listingUrl);
+            JavaType pageType = objectMapper.getTypeFactory().constructParametricType(SpotifyPage.class, SpotifyPlaylist.class);
+            SpotifyPage<SpotifyPlaylist> page = objectMapper.readValue(fullListing, pageType);
+            report.put(SpotifyFieldProjection.PLAYLIST_LISTING.name(), payloadComparison(
+                    SpotifyFieldProjection.PLAYLIST_LISTING, fullListing.length, compactWriter.writeValueAsBytes(page).length));
+
+            byte[] fullProfile = rawResponse(accessToken, "https://api.spotify.com/v1/me");
+            Map<String, Object> profile = objectMapper.readValue(fullProfile, objectMapper.getTypeFactory()
+                    .constructMapType(LinkedHashMap.class, String.class, Object.class));
+            report.put(SpotifyFieldProjection.USER_PROFILE.name(), payloadComparison(SpotifyFieldProjection.USER_PROFILE,
+                    fullProfile.length, compactWriter.writeValueAsBytes(SpotifyFieldProjection.USER_PROFILE.project(profile)).length));
+
+            if (playlistId == null && !page.getItems().isEmpty()) {
+                playlistId = page.getItems().get(0).getId();
+            }
+            if (playlistId != null) {
+                String tracksUrl = "https://api.spotify.com/v1/playlists/" + playlistId + "/tracks?limit=" + TRACK_PAGE_SIZE;
+                report.put(SpotifyFieldProjection.PLAYLIST_TRACKS.name(), payloadComparison(SpotifyFieldProjection.PLAYLIST_TRACKS,
+                        rawResponse(accessToken, tracksUrl).length,
+                        rawResponse(accessToken, SpotifyFieldProjection.PLAYLIST_TRACKS.apply(tracksUrl)).length));
+
+                String countUrl = "https://api.spotify.com/v1/playlists/" + playlistId + "/tracks?limit=1";
+                report.put(SpotifyFieldProjection.PLAYLIST_TRACK_COUNT.name(), payloadComparison(SpotifyFieldProjection.PLAYLIST_TRACK_COUNT,
+                        rawResponse(accessToken, countUrl).length,
+                        rawResponse(accessToken, SpotifyFieldProjection.PLAYLIST_TRACK_COUNT.apply(countUrl)).length));
+                report.put("playlistId", playlistId);
+            }
+        } catch (WebClientResponseException e) {
+            logger.error("Error measuring projection payloads: {} {}", e.getStatusCode(), e.getStatusText());
+            report.put("error", e.getStatusCode() + " " + e.getStatusText());
+        } catch (IOException e) {
+            logger.error("Error measuring projection payloads: {}", e.getMessage(), e);
+            report.put("error", e.getMessage());
+        }
+        return report;
+    }
+
+    private byte[] rawResponse(String accessToken, String url) {
+        byte[] body = webClient.get()
+                .uri(url)
+                .header("Authorization", "Bearer " + accessToken)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .block();
+        return body != null ? body : new byte[0];
+    }
+
+    private Map<String, Object> payloadComparison(SpotifyFieldProjection projection, int fullBytes, int projectedBytes) {
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        comparison.put("fields", projection.getFields());
+        comparison.put("projection", projection.isServerSide() ? "spotify" : "client");
+        comparison.put("fullBytes", fullBytes);
+        comparison.put("projectedBytes", projectedBytes);
+        comparison.put("savedPercent", fullBytes > 0 ? Math.round(100.0 * (fullBytes - projectedBytes) / fullBytes) : 0);
+        return comparison;
+    }
+}
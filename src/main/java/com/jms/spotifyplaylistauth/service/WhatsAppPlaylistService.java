@@ -2,6 +2,7 @@ package com.jms.spotifyplaylistauth.service;
 
 import com.jms.spotifyplaylistauth.dto.FridayPlaylist;
 import com.jms.spotifyplaylistauth.dto.WhatsAppMessage;
+import com.jms.spotifyplaylistauth.service.whatsapp.ChatParseResult;
 import com.jms.spotifyplaylistauth.service.whatsapp.PlaylistOrganizer;
 import com.jms.spotifyplaylistauth.service.whatsapp.WhatsAppParser;
 import org.slf4j.Logger;
@@ -71,12 +72,9 @@ public class WhatsAppPlaylistService {
     /**
      * Process a WhatsApp chat export file and create playlists for Fridays
      */
-    public List<FridayPlaylist> processWhatsAppChatExport(MultipartFile file, String accessToken) throws IOException {
-        // Parse the WhatsApp chat export
-        List<WhatsAppMessage> messages = whatsAppParser.parseWhatsAppChatExport(file);
-        
-        // Filter for messages with Spotify links sent on Fridays
-        List<WhatsAppMessage> fridaySpotifyMessages = whatsAppParser.filterFridaySpotifyMessages(messages);
+    public FridayPlaylistPlan processWhatsAppChatExport(MultipartFile file, String accessToken) throws IOException {
+        // Parse the WhatsApp chat export, keeping only messages with Spotify links sent on Fridays
+        ChatParseResult parsed = whatsAppParser.parseFridaySpotifyMessages(file);
         
         // Get existing playlist names from JMS website API to avoid duplicates
         Set<String> jmsPlaylistNames = jmsWebsiteService.fetchExistingPlaylistNames();
@@ -86,50 +84,25 @@ public class WhatsAppPlaylistService {
         Set<String> userPlaylistNames = spotifyPlaylistService.getUserPlaylistNames(accessToken);
         logger.info("Fetched {} existing playlist names from user's Spotify account", userPlaylistNames.size());
         
-        // Create a consolidated set of playlists that exist EITHER on JMS website OR in user's Spotify account
-        // This ensures we only create playlists that don't exist in either place
-        Set<String> allExistingPlaylistNames = new HashSet<>();
-        
-        // Process JMS playlists and also convert Weekly Mix format to JMS format
-        for (String playlistName : jmsPlaylistNames) {
-            allExistingPlaylistNames.add(playlistName);
-            
-            // If it's a Weekly Mix format, also add the JMS equivalent
-            if (playlistName.startsWith("Weekly Mix ")) {
-                String datePart = playlistName.substring("Weekly Mix ".length());
-                try {
-                    // Format: DD.MM.YYYY -> JMS DD.MM.YY
-                    if (datePart.matches("\\d{1,2}\\.\\d{2}\\.\\d{4}")) {
-                        String[] parts = datePart.split("\\.");
-                        String day = parts[0].length() == 1 ? "0" + parts[0] : parts[0];
-                        String month = parts[1];
-                        String year = parts[2].substring(2); // Last 2 digits
-                        String jmsTitle = "JMS " + day + "." + month + "." + year;
-                        allExistingPlaylistNames.add(jmsTitle);
-                        logger.debug("Added JMS equivalent to consolidated list: {}", jmsTitle);
-                    }
-                } catch (Exception ex) {
-                    logger.warn("Error converting Weekly Mix date format for '{}': {}", playlistName, ex.getMessage());
-                }
-            }
-        }
-        
-        // Add all Spotify playlists
-        allExistingPlaylistNames.addAll(userPlaylistNames);
-        
-        logger.info("Combined total of {} existing playlists to check (JMS + Spotify)", allExistingPlaylistNames.size());
+        return new FridayPlaylistPlan(
+                organizeNewPlaylists(parsed.messages(), jmsPlaylistNames, userPlaylistNames),
+                parsed.dateFormat());
+    }
+    
+    /**
+     * Group Friday Spotify messages into playlists, leaving out any playlist that
+     * already exists on the JMS website or in the user's Spotify account
+     */
+    public List<FridayPlaylist> organizeNewPlaylists(List<WhatsAppMessage> fridaySpotifyMessages,
+                                                     Set<String> jmsPlaylistNames,
+                                                     Set<String> userPlaylistNames) {
+        // Consolidated keys of playlists that exist EITHER on JMS website OR in user's Spotify account.
+        // "Weekly Mix dd.MM.yyyy" and "JMS dd.MM.yy" share a key, so both spellings count as existing.
+        PlaylistKeySet existingPlaylists = new PlaylistKeySet(jmsPlaylistNames.size() + userPlaylistNames.size())
+                .addNames(jmsPlaylistNames)
+                .addNames(userPlaylistNames);
         
-        // Log all playlists in the consolidated list for debugging
-        logger.info("Consolidated playlist list (showing first 20 for brevity):");
-        int displayCount = 0;
-        for (String playlistName : allExistingPlaylistNames) {
-            if (displayCount < 20) { // Limit logging to avoid overwhelming the logs
-                logger.info("  - {}", playlistName);
-                displayCount++;
-            } else {
-                break;
-            }
-        }
+        logger.info("Combined total of {} existing playlists to check (JMS + Spotify)", existingPlaylists.size());
         
         // Log more comprehensive information about the existing playlists to help with debugging
         logger.info("Detailed analysis of detected playlists:");
@@ -173,7 +146,7 @@ public class WhatsAppPlaylistService {
                     spotifyTotalCount, spotifyJmsCount, spotifyWeeklyCount);
         
         // Organize messages into playlists by Friday
-        List<FridayPlaylist> playlists = playlistOrganizer.organizeFridayPlaylists(fridaySpotifyMessages, allExistingPlaylistNames);
+        List<FridayPlaylist> playlists = playlistOrganizer.organizeFridayPlaylists(fridaySpotifyMessages, existingPlaylists);
         
         logger.info("Created {} new Friday playlists that don't exist on JMS or in Spotify account", playlists.size());
         return playlists;
@@ -202,6 +175,10 @@ public class WhatsAppPlaylistService {
         // Clear any existing recently created playlists tracking for this user
         spotifyPlaylistService.clearRecentlyCreatedPlaylists(userId);
         
+        // Look up the user's existing playlists once for the whole batch
+        PlaylistNameIndex nameIndex = spotifyPlaylistService.buildPlaylistNameIndex(accessToken, userId);
+        logger.info("Indexed {} existing playlist names for this batch", nameIndex.size());
+        
         List<Map<String, Object>> createdPlaylists = new ArrayList<>();
         
         for (FridayPlaylist playlist : playlists) {
@@ -214,12 +191,13 @@ public class WhatsAppPlaylistService {
                 Map<String, Object> createdPlaylist = spotifyPlaylistService.createPlaylistWithTracks(
                         accessToken, 
                         userId, 
-                        playlist);
+                        playlist,
+                        nameIndex);
                 
                 if (!createdPlaylist.isEmpty()) {
                     createdPlaylists.add(createdPlaylist);
-                    logger.info("Created playlist: {} with {} tracks", 
-                             playlist.getName(), playlist.getTrackUris().size());
+                    logger.info("Created playlist: {} with {} of {} tracks", 
+                             playlist.getName(), createdPlaylist.get("addedTracks"), playlist.getTrackUris().size());
                 } else {
                     logger.error("Failed to create playlist: {}", playlist.getName());
                 }
@@ -238,8 +216,10 @@ public class WhatsAppPlaylistService {
     public Map<String, Object> processAndCreatePlaylists(MultipartFile file, String accessToken) throws IOException {
         Map<String, Object> result = new HashMap<>();
         
-        List<FridayPlaylist> playlists = processWhatsAppChatExport(file, accessToken);
+        FridayPlaylistPlan plan = processWhatsAppChatExport(file, accessToken);
+        List<FridayPlaylist> playlists = plan.playlists();
         result.put("plannedPlaylists", playlists);
+        result.put("dateFormat", plan.dateFormat().getPattern());
         
         if (!playlists.isEmpty()) {
             List<Map<String, Object>> createdPlaylists = createSpotifyPlaylists(playlists, accessToken);
@@ -0,0 +1,135 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Splits a chat export held in a byte buffer into chunks that can be parsed independently.
+ * Every chunk after the first starts on a line that begins a message, so no message is cut in
+ * two and each chunk parses exactly the messages the whole file would give for that range.
+ */
+final class ChatChunkSplitter {
+
+    private ChatChunkSplitter() {
+    }
+
+    /**
+     * @param chat the UTF-8 chat text, from position 0 to its limit
+     * @param chunks the number of chunks wanted; fewer are returned if there are not enough message headers
+     * @return the chunk boundaries: chunk i runs from bounds[i] to bounds[i + 1]
+     */
+    static int[] split(ByteBuffer chat, int chunks) {
+        int size = chat.limit();
+        int[] bounds = new int[Math.max(chunks, 1) + 1];
+        int count = 0;
+        WhatsAppHeaderScanner header = new WhatsAppHeaderScanner();
+        ByteLine line = new ByteLine(chat);
+
+        for (int i = 1; i < chunks; i++) {
+            int target = (int) ((long) size * i / chunks);
+            int start = nextMessageStart(chat, Math.max(target, bounds[count] + 1), header, line);
+            if (start >= size) {
+                break;
+            }
+            bounds[++count] = start;
+        }
+        bounds[++count] = size;
+        return Arrays.copyOf(bounds, count + 1);
+    }
+
+    /**
+     * A stream over chat[start, end), for reading one chunk
+     */
+    static InputStream open(ByteBuffer chat, int start, int end) {
+        ByteBuffer chunk = chat.slice(start, end - start);
+        return new InputStream() {
+            @Override
+            public int read() {
+                return chunk.hasRemaining() ? chunk.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (!chunk.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(length, chunk.remaining());
+                chunk.get(bytes, offset, n);
+                return n;
+            }
+        };
+    }
+
+    // Start of the first line at or after pos that begins a message, or the buffer size if there is none
+    private static int nextMessageStart(ByteBuffer chat, int pos, WhatsAppHeaderScanner header, ByteLine line) {
+        int size = chat.limit();
+        // Only split after '\n', so a chunk never starts in the middle of a line
+        while (pos < size && chat.get(pos - 1) != '\n') {
+            pos++;
+        }
+        while (pos < size) {
+            int end = pos;
+            while (end < size && chat.get(end) != '\n' && chat.get(end) != '\r') {
+                end++;
+            }
+            line.set(pos, end);
+            if (header.scan(line)) {
+                return pos;
+            }
+            while (end < size && chat.get(end) != '\n') {
+                end++;
+            }
+            pos = end + 1;
+        }
+        return size;
+    }
+
+    /**
+     * One line of the buffer as characters, for the header scanner. Bytes map to chars one to one;
+     * header characters are all ASCII and UTF-8 continuation bytes never look like them.
+     */
+    private static final class ByteLine implements CharSequence {
+        private final ByteBuffer chat;
+        private int start;
+        private int end;
+
+        private ByteLine(ByteBuffer chat) {
+            this.chat = chat;
+        }
+
+        private void set(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (chat.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            ByteLine line = new ByteLine(chat);
+            line.set(start + from, start + to);
+            return line;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(length());
+            for (int i = start; i < end; i++) {
+                text.append((char) (chat.get(i) & 0xFF));
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The date layout of one chat export, detected once per upload from its first message headers.
+ * WhatsApp writes dates in the phone's locale, so the same "03/04/24" is 3 April in one export
+ * and 4 March in another; a day or month above 12 in the sample settles which field comes first.
+ * Dates are then parsed as plain integers, with a small cache from raw date token to epoch day,
+ * since consecutive messages mostly share a date. Each instance keeps its own cache and is not thread-safe.
+ */
+public class ChatDateFormat {
+
+    /** Number of distinct date tokens sampled before the layout is locked in */
+    static final int SAMPLE_SIZE = 200;
+
+    /** Returned by {@link #toEpochDay} for a token that is not a valid date in this layout */
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final int CACHE_SIZE = 64;
+
+    private final boolean dayFirst;
+    private final String pattern;
+    private final int sampledDates;
+
+    // Direct-mapped cache: packed date token -> epoch day
+    private final int[] cachedTokens = new int[CACHE_SIZE];
+    private final long[] cachedEpochDays = new long[CACHE_SIZE];
+
+    ChatDateFormat(boolean dayFirst, String pattern, int sampledDates) {
+        this.dayFirst = dayFirst;
+        this.pattern = pattern;
+        this.sampledDates = sampledDates;
+        Arrays.fill(cachedTokens, -1);
+    }
+
+    /**
+     * Sample the date tokens of the first message headers and pick the layout they fit.
+     * If no day or month above 12 shows up, dotted dates are read day first and slashed dates
+     * month first, as the previous formatter did.
+     */
+    static ChatDateFormat detect(BufferedReader reader) throws IOException {
+        WhatsAppHeaderScanner header = new WhatsAppHeaderScanner();
+        int sampled = 0;
+        int dayFirstVotes = 0;
+        int monthFirstVotes = 0;
+        int dotted = 0;
+        boolean padded = true;
+        boolean fourDigitYears = false;
+        String previousToken = null;
+
+        String line;
+        while (sampled < SAMPLE_SIZE && (line = reader.readLine()) != null) {
+            if (!header.scan(line)) {
+                continue;
+            }
+            String token = line.substring(header.dateStart, header.dateEnd);
+            if (token.equals(previousToken)) {
+                continue;
+            }
+            previousToken = token;
+            sampled++;
+
+            int firstEnd = fieldEnd(token, 0);
+            int secondEnd = fieldEnd(token, firstEnd + 1);
+            int first = parseInt(token, 0, firstEnd);
+            int second = parseInt(token, firstEnd + 1, secondEnd);
+            if (first > 12) {
+                dayFirstVotes++;
+            }
+            if (second > 12) {
+                monthFirstVotes++;
+            }
+            if (token.charAt(firstEnd) == '.') {
+                dotted++;
+            }
+            padded &= firstEnd == 2 && secondEnd - firstEnd == 3;
+            fourDigitYears |= token.length() - secondEnd - 1 == 4;
+        }
+
+        boolean mostlyDotted = dotted * 2 > sampled;
+        boolean dayFirst = dayFirstVotes != monthFirstVotes ? dayFirstVotes > monthFirstVotes : mostlyDotted;
+
+        String day = padded ? "dd" : "d";
+        String month = padded ? "MM" : "M";
+        String separator = mostlyDotted ? "." : "/";
+        String year = fourDigitYears ? "yyyy" : "yy";
+        String pattern = dayFirst
+                ? day + separator + month + separator + year
+                : month + separator + day + separator + year;
+        return new ChatDateFormat(dayFirst, pattern, sampled);
+    }
+
+    /**
+     * The same layout with a cache of its own, for parsing on another thread
+     */
+    ChatDateFormat copy() {
+        return new ChatDateFormat(dayFirst, pattern, sampledDates);
+    }
+
+    /**
+     * @param text a message header, with the date token at start..end as found by {@link WhatsAppHeaderScanner}
+     * @return the epoch day, or {@link #INVALID} if the token is not a date in this layout
+     */
+    long toEpochDay(CharSequence text, int start, int end) {
+        int firstEnd = fieldEnd(text, start);
+        int secondEnd = fieldEnd(text, firstEnd + 1);
+        int first = parseInt(text, start, firstEnd);
+        int second = parseInt(text, firstEnd + 1, secondEnd);
+        int year = parseInt(text, secondEnd + 1, end);
+        if (end - secondEnd - 1 == 2) {
+            year += 2000;
+        }
+
+        // With nothing sampled there is no layout to lock in, so each token falls back on its separator
+        boolean tokenDayFirst = sampledDates > 0 ? dayFirst : text.charAt(firstEnd) == '.';
+
+        // Fields are at most 99, 99 and 9999, so the packed token is a non-negative int
+        int token = ((first * 100 + second) * 10000 + year) * 2 + (tokenDayFirst ? 1 : 0);
+        int slot = (token * 0x9E3779B9) >>> 26;
+        if (cachedTokens[slot] == token) {
+            return cachedEpochDays[slot];
+        }
+
+        long epochDay;
+        try {
+            epochDay = tokenDayFirst
+                    ? LocalDate.of(year, second, first).toEpochDay()
+                    : LocalDate.of(year, first, second).toEpochDay();
+        } catch (DateTimeException e) {
+            epochDay = INVALID;
+        }
+        cachedTokens[slot] = token;
+        cachedEpochDays[slot] = epochDay;
+        return epochDay;
+    }
+
+    /**
+     * The detected layout as a date pattern, e.g. "dd.MM.yy" or "M/d/yy"
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    public boolean isDayFirst() {
+        return dayFirst;
+    }
+
+    /**
+     * Number of distinct dates the layout was detected from
+     */
+    public int getSampledDates() {
+        return sampledDates;
+    }
+
+    @Override
+    public String toString() {
+        if (sampledDates == 0) {
+            return "unknown (no message dates found)";
+        }
+        return pattern + (dayFirst ? " (day first" : " (month first") + ", detected from " + sampledDates + " dates)";
+    }
+
+    // Index of the '/' or '.' ending the field that starts at pos
+    private static int fieldEnd(CharSequence text, int pos) {
+        while (text.charAt(pos) != '/' && text.charAt(pos) != '.') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int parseInt(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+}
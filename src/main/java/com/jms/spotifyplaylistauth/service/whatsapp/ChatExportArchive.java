@@ -0,0 +1,170 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads the chat text straight out of a ZIP made by WhatsApp's "Export chat"
+ * (iOS names it "_chat.txt", Android "WhatsApp Chat with ....txt").
+ * The archive is decompressed as it streams in: media entries before the chat are
+ * read past without being kept, and nothing is written to disk. A stream of a ZIP has to
+ * inflate an entry to get past it, so every byte inflated, skipped or not, counts against
+ * one limit per pass over the archive.
+ */
+final class ChatExportArchive {
+    private static final Logger logger = LoggerFactory.getLogger(ChatExportArchive.class);
+
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+
+    private static final int IOS_CHAT = 0;
+    private static final int ANDROID_CHAT = 1;
+    private static final int OTHER_TEXT = 2;
+    private static final int NOT_CHAT = Integer.MAX_VALUE;
+
+    private ChatExportArchive() {
+    }
+
+    /**
+     * Whether the stream starts with a ZIP local file header; the stream is left where it was
+     * @param upload must support mark/reset
+     */
+    static boolean isZip(InputStream upload) throws IOException {
+        upload.mark(ZIP_MAGIC.length);
+        try {
+            for (byte expected : ZIP_MAGIC) {
+                if (upload.read() != expected) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            upload.reset();
+        }
+    }
+
+    /**
+     * Positions the archive at its chat text entry. "_chat.txt" is taken as soon as it is seen.
+     * Otherwise the whole archive is listed and the chat is, in order of preference, the first
+     * "WhatsApp Chat*.txt" entry or the only other .txt entry; the upload is then opened again
+     * and read up to that entry.
+     * @param reopen opens the upload again from the start, for when the chat entry was passed over
+     * @param maxUnzippedBytes the most bytes decompressed in one pass over the archive, media
+     *                         passed over and chat text alike, so a small archive cannot expand without bound
+     * @return the decompressed chat text; closing it closes the upload
+     */
+    static InputStream openChatEntry(InputStream upload, UploadSource reopen, long maxUnzippedBytes) throws IOException {
+        String chatEntry = null;
+        int chatRank = NOT_CHAT;
+        int otherTextEntries = 0;
+
+        ZipInputStream zip = new BoundedZipInputStream(upload, maxUnzippedBytes);
+        int skipped = 0;
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            int rank = chatRank(entry);
+            if (rank == IOS_CHAT) {
+                logger.info("Reading WhatsApp chat {} from ZIP export, skipped {} other entries", entry.getName(), skipped);
+                return zip;
+            }
+            if (rank == OTHER_TEXT) {
+                otherTextEntries++;
+            }
+            if (rank < chatRank) {
+                chatRank = rank;
+                chatEntry = entry.getName();
+            }
+            skipped++;
+        }
+        zip.close();
+
+        if (chatEntry == null) {
+            throw new IOException("No chat text (_chat.txt) found in ZIP export");
+        }
+        if (chatRank == OTHER_TEXT && otherTextEntries > 1) {
+            throw new IOException("ZIP export has " + otherTextEntries + " text files and none is named like a WhatsApp chat");
+        }
+        return openEntry(reopen.open(), chatEntry, maxUnzippedBytes);
+    }
+
+    private static InputStream openEntry(InputStream upload, String name, long maxUnzippedBytes) throws IOException {
+        ZipInputStream zip = new BoundedZipInputStream(upload, maxUnzippedBytes);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (entry.getName().equals(name)) {
+                logger.info("Reading WhatsApp chat {} from ZIP export", name);
+                return zip;
+            }
+        }
+        zip.close();
+        throw new IOException("Chat text " + name + " disappeared from ZIP export");
+    }
+
+    // Lower is preferred; NOT_CHAT for entries that cannot be the chat
+    private static int chatRank(ZipEntry entry) {
+        if (entry.isDirectory() || entry.getName().startsWith("__MACOSX/")) {
+            return NOT_CHAT;
+        }
+        String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+        if (name.equals("_chat.txt")) {
+            return IOS_CHAT;
+        }
+        if (!name.endsWith(".txt") || name.startsWith(".")) {
+            return NOT_CHAT;
+        }
+        return name.startsWith("WhatsApp Chat") ? ANDROID_CHAT : OTHER_TEXT;
+    }
+
+    /**
+     * Opens the uploaded file again from its first byte
+     */
+    @FunctionalInterface
+    interface UploadSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Fails once more than the limit has been decompressed. Getting past an entry reads it
+     * through {@link #read(byte[], int, int)}, so skipped entries are counted too, and an
+     * entry that declares a size over what is left is refused before it is inflated.
+     */
+    private static final class BoundedZipInputStream extends ZipInputStream {
+        private final long limit;
+        private long remaining;
+
+        private BoundedZipInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+            this.remaining = limit;
+        }
+
+        @Override
+        public ZipEntry getNextEntry() throws IOException {
+            ZipEntry entry = super.getNextEntry();
+            if (entry != null && entry.getSize() > remaining) {
+                throw tooLarge();
+            }
+            return entry;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int n = super.read(bytes, offset, length);
+            if (n > 0) {
+                remaining -= n;
+                if (remaining < 0) {
+                    throw tooLarge();
+                }
+            }
+            return n;
+        }
+
+        private IOException tooLarge() {
+            return new IOException("ZIP export expands to more than " + limit + " bytes");
+        }
+    }
+}
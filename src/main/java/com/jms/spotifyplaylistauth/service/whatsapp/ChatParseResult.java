@@ -0,0 +1,12 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import com.jms.spotifyplaylistauth.dto.WhatsAppMessage;
+
+import java.util.List;
+
+/**
+ * Messages parsed from one chat export, with the date layout detected for it,
+ * so the layout can be reported without reading the upload again
+ */
+public record ChatParseResult(List<WhatsAppMessage> messages, ChatDateFormat dateFormat) {
+}
@@ -1,7 +1,9 @@
 package com.jms.spotifyplaylistauth.service.whatsapp;
 
 import com.jms.spotifyplaylistauth.dto.FridayPlaylist;
+import com.jms.spotifyplaylistauth.dto.PlaylistKey;
 import com.jms.spotifyplaylistauth.dto.WhatsAppMessage;
+import com.jms.spotifyplaylistauth.service.PlaylistKeySet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -27,8 +29,9 @@ public class PlaylistOrganizer {
 
     /**
      * Organizes messages into playlists by Friday date
+     * @param existingPlaylists keys of playlists that already exist under any spelling
      */
-    public List<FridayPlaylist> organizeFridayPlaylists(List<WhatsAppMessage> messages, Set<String> existingPlaylistNames) {
+    public List<FridayPlaylist> organizeFridayPlaylists(List<WhatsAppMessage> messages, PlaylistKeySet existingPlaylists) {
         // Group messages by the Friday they were sent
         Map<LocalDate, List<WhatsAppMessage>> messagesByFriday = new HashMap<>();
         
@@ -48,16 +51,16 @@ public class PlaylistOrganizer {
             LocalDate fridayDate = entry.getKey();
             List<WhatsAppMessage> fridayMessages = entry.getValue();
             
-            // Create a playlist for this Friday
-            LocalDateTime fridayDateTime = LocalDateTime.of(fridayDate, LocalTime.MIDNIGHT);
-            FridayPlaylist playlist = new FridayPlaylist(fridayDateTime);
-            
             // Skip if this playlist already exists
-            if (existingPlaylistNames.contains(playlist.getName())) {
-                logger.info("Playlist {} already exists, skipping", playlist.getName());
+            if (existingPlaylists.contains(PlaylistKey.ofDate(fridayDate))) {
+                logger.info("Playlist for {} already exists, skipping", fridayDate);
                 continue;
             }
             
+            // Create a playlist for this Friday
+            LocalDateTime fridayDateTime = LocalDateTime.of(fridayDate, LocalTime.MIDNIGHT);
+            FridayPlaylist playlist = new FridayPlaylist(fridayDateTime);
+            
             // Extract Spotify track URIs from the messages
             for (WhatsAppMessage message : fridayMessages) {
                 String trackUri = extractTrackUriFromLink(message.getSpotifyLink());
@@ -0,0 +1,120 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Side-by-side timing of {@link WhatsAppHeaderScanner} against the MESSAGE_PATTERN regex it replaced,
+ * run over generated chat lines in both export styles. The regex path is timed as the parser used it:
+ * a find() to detect each header line, then a second match on the message to extract the groups.
+ * The regex is kept here only as the reference the scanner must agree with.
+ */
+public final class WhatsAppHeaderScanComparison {
+
+    private static final Pattern MESSAGE_PATTERN = Pattern.compile(
+            "^\\[?(\\d{1,2}[/.]\\d{1,2}[/.]\\d{2,4}),?\\s(\\d{1,2}:\\d{2}(?::\\d{2})?)\\]?\\s-?\\s*([^:]+):\\s(.+)",
+            Pattern.DOTALL
+    );
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    private WhatsAppHeaderScanComparison() {
+    }
+
+    /**
+     * Time both header parsers over generated chat lines
+     * @param lines number of chat lines, about a quarter of them continuation lines
+     * @param rounds measured rounds per parser, after a short warm-up
+     */
+    public static Map<String, Object> compare(int lines, int rounds) {
+        List<String> chat = generateChat(lines);
+        WhatsAppHeaderScanner scanner = new WhatsAppHeaderScanner();
+
+        List<String> regexHeaders = parseWithRegex(chat);
+        List<String> scannerHeaders = parseWithScanner(chat, scanner);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            parseWithRegex(chat);
+            parseWithScanner(chat, scanner);
+        }
+
+        long regexNanos = 0;
+        long scannerNanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            parseWithRegex(chat);
+            regexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            parseWithScanner(chat, scanner);
+            scannerNanos += System.nanoTime() - start;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lines", chat.size());
+        result.put("rounds", rounds);
+        result.put("headersFound", scannerHeaders.size());
+        result.put("sameResult", regexHeaders.equals(scannerHeaders));
+        result.put("regexMicrosPerChat", regexNanos / 1000 / Math.max(rounds, 1));
+        result.put("scannerMicrosPerChat", scannerNanos / 1000 / Math.max(rounds, 1));
+        result.put("speedup", scannerNanos > 0 ? Math.round(regexNanos * 100.0 / scannerNanos) / 100.0 : 0);
+        return result;
+    }
+
+    /**
+     * Headers the old MESSAGE_PATTERN parse found, as "date|time|author|content"
+     */
+    static List<String> parseWithRegex(List<String> chat) {
+        List<String> headers = new ArrayList<>();
+        for (String line : chat) {
+            if (line.trim().isEmpty() || !MESSAGE_PATTERN.matcher(line).find()) {
+                continue;
+            }
+            Matcher matcher = MESSAGE_PATTERN.matcher((line + System.lineSeparator()).trim());
+            if (matcher.find()) {
+                headers.add(matcher.group(1) + "|" + matcher.group(2) + "|" + matcher.group(3).trim() + "|" + matcher.group(4).trim());
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * The same headers as found by the scanner, in the same form as {@link #parseWithRegex}
+     */
+    static List<String> parseWithScanner(List<String> chat, WhatsAppHeaderScanner scanner) {
+        List<String> headers = new ArrayList<>();
+        for (String line : chat) {
+            if (scanner.scan(line)) {
+                String content = line.substring(scanner.contentStart).trim();
+                if (!content.isEmpty()) {
+                    headers.add(line.substring(scanner.dateStart, scanner.dateEnd) + "|"
+                            + line.substring(scanner.timeStart, scanner.timeEnd) + "|"
+                            + line.substring(scanner.authorStart, scanner.authorEnd) + "|" + content);
+                }
+            }
+        }
+        return headers;
+    }
+
+    private static List<String> generateChat(int lines) {
+        List<String> chat = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            int day = i % 28 + 1;
+            int month = i / 28 % 12 + 1;
+            int minute = i % 60;
+            switch (i % 4) {
+                case 0 -> chat.add(month + "/" + day + "/24, 07:" + (minute < 10 ? "0" : "") + minute
+                        + " - +44 7999 4317" + (i % 100) + ": https://open.spotify.com/track/abc" + i + "?si=share");
+                case 1 -> chat.add(String.format("[%02d.%02d.24, 15:%02d] Member %d: anyone got a tune for Friday?",
+                        day, month, minute, i % 50));
+                case 2 -> chat.add("Tracks for this week, in no particular order: " + i);
+                default -> chat.add(String.format("[%02d.%02d.24, 21:%02d:%02d] DJ %d: spotify:track:zzz%d",
+                        day, month, minute, minute, i % 7, i));
+            }
+        }
+        return chat;
+    }
+}
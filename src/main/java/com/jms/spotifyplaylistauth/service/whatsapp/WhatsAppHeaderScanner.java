@@ -0,0 +1,142 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+/**
+ * Recognises the header that starts a WhatsApp message by inspecting characters,
+ * without a regex. Both export styles are handled:
+ * "2/16/24, 07:44 - Author: text" and "[04.05.24, 15:22] Author: text".
+ * A successful {@link #scan} leaves the offsets of the date, time, author and content
+ * in this object; the author offsets are already trimmed. One instance is reused for
+ * every line of a chat, so a scan allocates nothing. Not thread-safe.
+ */
+class WhatsAppHeaderScanner {
+    int dateStart;
+    int dateEnd;
+    int timeStart;
+    int timeEnd;
+    int authorStart;
+    int authorEnd;
+    int contentStart;
+
+    /**
+     * @return true if the text starts with a message header followed by at least one character of content
+     */
+    boolean scan(CharSequence text) {
+        int length = text.length();
+        int pos = 0;
+
+        // [dd.mm.yy or m/d/yy - day and month have 1-2 digits, the year 2-4
+        if (pos < length && text.charAt(pos) == '[') {
+            pos++;
+        }
+        dateStart = pos;
+        pos = digitRun(text, pos, 1, 2);
+        if (pos < 0 || !isDateSeparator(text, pos)) {
+            return false;
+        }
+        pos = digitRun(text, pos + 1, 1, 2);
+        if (pos < 0 || !isDateSeparator(text, pos)) {
+            return false;
+        }
+        pos = digitRun(text, pos + 1, 2, 4);
+        if (pos < 0) {
+            return false;
+        }
+        dateEnd = pos;
+
+        // Optional comma, then one whitespace character
+        if (pos < length && text.charAt(pos) == ',') {
+            pos++;
+        }
+        if (pos >= length || !isWhitespace(text.charAt(pos))) {
+            return false;
+        }
+        pos++;
+
+        // hh:mm with optional :ss
+        timeStart = pos;
+        pos = digitRun(text, pos, 1, 2);
+        if (pos < 0 || pos >= length || text.charAt(pos) != ':') {
+            return false;
+        }
+        pos = digitRun(text, pos + 1, 2, 2);
+        if (pos < 0) {
+            return false;
+        }
+        if (pos < length && text.charAt(pos) == ':') {
+            pos = digitRun(text, pos + 1, 2, 2);
+            if (pos < 0) {
+                return false;
+            }
+        }
+        timeEnd = pos;
+
+        // Optional closing bracket, then one whitespace character
+        if (pos < length && text.charAt(pos) == ']') {
+            pos++;
+        }
+        if (pos >= length || !isWhitespace(text.charAt(pos))) {
+            return false;
+        }
+        pos++;
+
+        // Author runs up to the first colon, after an optional "-" separator
+        int colon = indexOf(text, ':', pos);
+        if (colon <= pos) {
+            return false;
+        }
+        int start = text.charAt(pos) == '-' && colon > pos + 1 ? pos + 1 : pos;
+        int end = colon;
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        authorStart = start;
+        authorEnd = end;
+
+        // ": " followed by at least one character of content
+        if (colon + 2 >= length || !isWhitespace(text.charAt(colon + 1))) {
+            return false;
+        }
+        contentStart = colon + 2;
+        return true;
+    }
+
+    // End of a run of min..max digits starting at pos, or -1 if the run is shorter or longer
+    private static int digitRun(CharSequence text, int pos, int min, int max) {
+        int length = text.length();
+        int end = pos;
+        while (end < length && isDigit(text.charAt(end))) {
+            end++;
+        }
+        int count = end - pos;
+        return count >= min && count <= max ? end : -1;
+    }
+
+    private static int indexOf(CharSequence text, char c, int from) {
+        for (int i = from, length = text.length(); i < length; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDateSeparator(CharSequence text, int pos) {
+        if (pos >= text.length()) {
+            return false;
+        }
+        char c = text.charAt(pos);
+        return c == '/' || c == '.';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // The \s class: ASCII whitespace only
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
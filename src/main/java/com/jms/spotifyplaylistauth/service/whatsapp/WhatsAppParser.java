@@ -3,150 +3,443 @@ package com.jms.spotifyplaylistauth.service.whatsapp;
 import com.jms.spotifyplaylistauth.dto.WhatsAppMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.annotation.PreDestroy;
+
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class WhatsAppParser {
     private static final Logger logger = LoggerFactory.getLogger(WhatsAppParser.class);
 
-    // Updated regex to handle multiple date formats found in WhatsApp exports
-    // Handles formats like: "2/16/24, 07:44 - +44 7999 431711: message"
-    // and: "[04.05.24, 15:22] Name: message"
-    private static final Pattern MESSAGE_PATTERN = Pattern.compile(
-            "^\\[?(\\d{1,2}[/.]\\d{1,2}[/.]\\d{2,4}),?\\s(\\d{1,2}:\\d{2}(?::\\d{2})?)\\]?\\s-?\\s*([^:]+):\\s(.+)",
-            Pattern.DOTALL
-    );
-
-    // Flexible date formatter that can parse multiple date patterns
-    private static final DateTimeFormatter DATE_FORMATTER = new DateTimeFormatterBuilder()
-            .appendOptional(DateTimeFormatter.ofPattern("M/d/yy"))      // 2/16/24
-            .appendOptional(DateTimeFormatter.ofPattern("MM/dd/yy"))    // 02/16/24
-            .appendOptional(DateTimeFormatter.ofPattern("d/M/yy"))      // 16/2/24
-            .appendOptional(DateTimeFormatter.ofPattern("dd/MM/yy"))    // 16/02/24
-            .appendOptional(DateTimeFormatter.ofPattern("dd.MM.yy"))    // 16.02.24
-            .appendOptional(DateTimeFormatter.ofPattern("d.M.yy"))      // 16.2.24
-            .appendOptional(DateTimeFormatter.ofPattern("M/d/yyyy"))    // 2/16/2024
-            .appendOptional(DateTimeFormatter.ofPattern("MM/dd/yyyy"))  // 02/16/2024
-            .appendOptional(DateTimeFormatter.ofPattern("d/M/yyyy"))    // 16/2/2024
-            .appendOptional(DateTimeFormatter.ofPattern("dd/MM/yyyy"))  // 16/02/2024
-            .appendOptional(DateTimeFormatter.ofPattern("dd.MM.yyyy"))  // 16.02.2024
-            .appendOptional(DateTimeFormatter.ofPattern("d.M.yyyy"))    // 16.2.2024
-            .toFormatter();
+    // Chunks per pool thread, so threads that finish early pick up more work
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // Chats at least this large are split into chunks and parsed in parallel; 0 disables parallel parsing
+    @Value("${whatsapp.parse.parallel-threshold-bytes:4194304}")
+    private long parallelThresholdBytes;
+
+    // Threads for parallel parsing; 0 uses one per available core
+    @Value("${whatsapp.parse.parallelism:0}")
+    private int parallelism;
+
+    // Most bytes decompressed from a ZIP export, skipped media included, so a small archive cannot expand without bound
+    @Value("${whatsapp.upload.max-unzipped-bytes:268435456}")
+    private long maxUnzippedBytes;
+
+    // Pool for parallel parsing, created the first time a large chat is parsed
+    private final AtomicReference<ForkJoinPool> parsePool = new AtomicReference<>();
+
+    @PreDestroy
+    public void shutdown() {
+        ForkJoinPool pool = parsePool.getAndSet(null);
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
 
     /**
-     * Parses WhatsApp chat export handling multi-line messages by reading in blocks
+     * Parses WhatsApp chat export handling multi-line messages by reading in blocks.
+     * Holds every message in memory; prefer {@link #parseFridaySpotifyMessages} or
+     * {@link #streamWhatsAppChatExport} for large chats.
      */
     public List<WhatsAppMessage> parseWhatsAppChatExport(MultipartFile file) throws IOException {
-        List<WhatsAppMessage> messages = new ArrayList<>();
-        int lineCount = 0;
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-            StringBuilder messageBlock = new StringBuilder();
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                lineCount++;
-                
-                // Check if this line starts a new message
-                if (isNewMessage(line)) {
-                    // If we have a previous message block, parse it
-                    if (messageBlock.length() > 0) {
-                        WhatsAppMessage message = parseMessageBlock(messageBlock.toString());
-                        if (message != null) {
-                            messages.add(message);
-                        }
-                        messageBlock.setLength(0); // Reset for new message
+        return parse(file, message -> true).messages();
+    }
+
+    /**
+     * Parses only the Friday messages with Spotify links, filtering while the file is read,
+     * so memory grows with the number of matching messages rather than with the chat size
+     * @return the matching messages and the date layout they were parsed with
+     */
+    public ChatParseResult parseFridaySpotifyMessages(MultipartFile file) throws IOException {
+        ChatParseResult result = parse(file, this::isFridaySpotifyMessage);
+        logger.info("Found {} messages with Spotify links sent on Fridays", result.messages().size());
+        return result;
+    }
+
+    private ChatParseResult parse(MultipartFile file, Predicate<WhatsAppMessage> filter) throws IOException {
+        ChatDateFormat dateFormat = detectDateFormat(file);
+        if (isLargeChat(file)) {
+            return new ChatParseResult(parseInParallel(file, dateFormat, filter), dateFormat);
+        }
+        try (Stream<WhatsAppMessage> messages = streamWhatsAppChatExport(file, dateFormat)) {
+            return new ChatParseResult(messages.filter(filter).collect(Collectors.toList()), dateFormat);
+        }
+    }
+
+    /**
+     * Lazily parses a WhatsApp chat export: messages are read and parsed one block at a time
+     * as the stream is consumed. The export may be the chat text or WhatsApp's ZIP export.
+     * The stream holds the open file and must be closed.
+     */
+    public Stream<WhatsAppMessage> streamWhatsAppChatExport(MultipartFile file) throws IOException {
+        return streamWhatsAppChatExport(file, detectDateFormat(file));
+    }
+
+    private Stream<WhatsAppMessage> streamWhatsAppChatExport(MultipartFile file, ChatDateFormat dateFormat) throws IOException {
+        BufferedReader reader = openChat(file);
+        MessageIterator iterator = new MessageIterator(reader, dateFormat);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    logger.info("Processed {} lines and parsed {} messages from WhatsApp chat export",
+                            iterator.lineCount, iterator.messageCount);
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
-                }
-                
-                // Add the current line to the message block
-                messageBlock.append(line);
-                if (!line.isEmpty()) {
-                    messageBlock.append(System.lineSeparator());
-                }
-            }
+                });
+    }
 
-            // Parse the final message block
-            if (messageBlock.length() > 0) {
-                WhatsAppMessage message = parseMessageBlock(messageBlock.toString());
-                if (message != null) {
-                    messages.add(message);
-                }
-            }
+    /**
+     * Detects the date layout of a chat export from the first message headers, reading only as far as needed
+     */
+    private ChatDateFormat detectDateFormat(MultipartFile file) throws IOException {
+        try (BufferedReader reader = openChat(file)) {
+            ChatDateFormat dateFormat = ChatDateFormat.detect(reader);
+            logger.info("Detected WhatsApp date format {}", dateFormat);
+            return dateFormat;
+        }
+    }
+
+    private BufferedReader openChat(MultipartFile file) throws IOException {
+        return openChat(openChatText(file));
+    }
+
+    /**
+     * The chat text of an upload: the file itself, or the chat entry of a ZIP export
+     */
+    private InputStream openChatText(MultipartFile file) throws IOException {
+        InputStream upload = new BufferedInputStream(file.getInputStream());
+        try {
+            return ChatExportArchive.isZip(upload)
+                    ? ChatExportArchive.openChatEntry(upload, () -> new BufferedInputStream(file.getInputStream()), maxUnzippedBytes)
+                    : upload;
+        } catch (IOException e) {
+            upload.close();
+            throw e;
         }
+    }
+
+    private boolean isZipExport(MultipartFile file) throws IOException {
+        try (InputStream upload = new BufferedInputStream(file.getInputStream())) {
+            return ChatExportArchive.isZip(upload);
+        }
+    }
+
+    private BufferedReader openChat(InputStream chat) {
+        return new BufferedReader(new InputStreamReader(chat, StandardCharsets.UTF_8));
+    }
+
+    // ZIP exports are always decompressed as a stream, never written out for the parallel parse
+    private boolean isLargeChat(MultipartFile file) throws IOException {
+        return parallelThresholdBytes > 0 && file.getSize() >= parallelThresholdBytes && !isZipExport(file);
+    }
+
+    /**
+     * Parses a large chat on all cores: the chat is copied to a memory-mapped temp file, split into
+     * chunks that each start on a message header, and the chunks are parsed on a fork/join pool.
+     * Per-chunk results are joined in chunk order, so the messages come out in file order, exactly
+     * as a sequential parse gives them.
+     * @param filter applied while each chunk is parsed, so only matching messages are held
+     */
+    List<WhatsAppMessage> parseInParallel(MultipartFile file, ChatDateFormat dateFormat,
+                                          Predicate<WhatsAppMessage> filter) throws IOException {
+        long startNanos = System.nanoTime();
 
-        logger.info("Processed {} lines and parsed {} messages from WhatsApp chat export", lineCount, messages.size());
+        // Copied rather than transferred, so the upload can still be read afterwards
+        Path chatFile = Files.createTempFile("whatsapp-chat", ".txt");
+        List<WhatsAppMessage> messages;
+        try {
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, chatFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            messages = parseMapped(chatFile, dateFormat, filter);
+        } finally {
+            deleteTempFile(chatFile);
+        }
+        logger.info("Parsed {} messages from a {} byte WhatsApp chat export in {} ms",
+                messages.size(), file.getSize(), (System.nanoTime() - startNanos) / 1_000_000);
         return messages;
     }
 
+    // The mapping is only referenced in here, so it is unreachable by the time the file is deleted
+    private List<WhatsAppMessage> parseMapped(Path chatFile, ChatDateFormat dateFormat,
+                                              Predicate<WhatsAppMessage> filter) throws IOException {
+        MappedByteBuffer chat;
+        try (FileChannel channel = FileChannel.open(chatFile, StandardOpenOption.READ)) {
+            chat = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ForkJoinPool pool = parsePool();
+        int[] bounds = ChatChunkSplitter.split(chat, pool.getParallelism() * CHUNKS_PER_THREAD);
+        logger.debug("Parsing WhatsApp chat export in {} chunks on {} threads", bounds.length - 1, pool.getParallelism());
+        return pool.invoke(new ChunkParseTask(chat, bounds, 0, bounds.length - 1, dateFormat, filter));
+    }
+
     /**
-     * Checks if a line starts a new WhatsApp message
+     * Deletes the temp copy of a chat. A file that is still mapped cannot be deleted on every
+     * platform until the mapping is collected, so it is then left to be deleted on exit.
      */
-    private boolean isNewMessage(String line) {
-        if (line == null || line.trim().isEmpty()) {
-            return false;
+    private void deleteTempFile(Path chatFile) {
+        try {
+            Files.deleteIfExists(chatFile);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary chat file {}, deleting it on exit: {}", chatFile, e.getMessage());
+            chatFile.toFile().deleteOnExit();
         }
-        return MESSAGE_PATTERN.matcher(line).find();
+    }
+
+    // Creating a pool starts no threads, so a pool that loses the race is simply dropped
+    private ForkJoinPool parsePool() {
+        ForkJoinPool pool = parsePool.get();
+        if (pool != null) {
+            return pool;
+        }
+        ForkJoinPool created = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        ForkJoinPool running = parsePool.compareAndExchange(null, created);
+        if (running != null) {
+            created.shutdown();
+            return running;
+        }
+        return created;
     }
 
     /**
-     * Parses a complete message block (potentially multi-line)
+     * Parses chunks [from, to) of the chat, splitting the range in half until one chunk is left,
+     * then joins the two halves in file order
      */
-    private WhatsAppMessage parseMessageBlock(String block) {
-        if (block == null || block.trim().isEmpty()) {
-            return null;
+    private class ChunkParseTask extends RecursiveTask<List<WhatsAppMessage>> {
+        private final ByteBuffer chat;
+        private final int[] bounds;
+        private final int from;
+        private final int to;
+        private final ChatDateFormat dateFormat;
+        private final Predicate<WhatsAppMessage> filter;
+
+        private ChunkParseTask(ByteBuffer chat, int[] bounds, int from, int to,
+                               ChatDateFormat dateFormat, Predicate<WhatsAppMessage> filter) {
+            this.chat = chat;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.dateFormat = dateFormat;
+            this.filter = filter;
         }
 
-        String trimmedBlock = block.trim();
-        Matcher matcher = MESSAGE_PATTERN.matcher(trimmedBlock);
-        
-        if (matcher.find()) {
+        @Override
+        protected List<WhatsAppMessage> compute() {
+            if (to - from == 1) {
+                return parseChunk();
+            }
+            int middle = (from + to) >>> 1;
+            ChunkParseTask left = new ChunkParseTask(chat, bounds, from, middle, dateFormat, filter);
+            ChunkParseTask right = new ChunkParseTask(chat, bounds, middle, to, dateFormat, filter);
+            left.fork();
+            List<WhatsAppMessage> rightMessages = right.compute();
+            List<WhatsAppMessage> messages = left.join();
+            messages.addAll(rightMessages);
+            return messages;
+        }
+
+        private List<WhatsAppMessage> parseChunk() {
+            InputStream chunk = ChatChunkSplitter.open(chat, bounds[from], bounds[from + 1]);
+            MessageIterator iterator = new MessageIterator(openChat(chunk), dateFormat.copy());
+            List<WhatsAppMessage> messages = new ArrayList<>();
+            while (iterator.hasNext()) {
+                WhatsAppMessage message = iterator.next();
+                if (filter.test(message)) {
+                    messages.add(message);
+                }
+            }
+            return messages;
+        }
+    }
+
+    /**
+     * Reads the chat line by line and yields a message each time the next one starts.
+     * Each line is scanned once; when it starts a message its header offsets are kept,
+     * so the completed block is built from them without being scanned again.
+     */
+    private class MessageIterator implements Iterator<WhatsAppMessage> {
+        private final BufferedReader reader;
+        private final ChatDateFormat dateFormat;
+        // Header of the line just read, and of the first line of the block collected so far
+        private WhatsAppHeaderScanner lineHeader = new WhatsAppHeaderScanner();
+        private WhatsAppHeaderScanner blockHeader = new WhatsAppHeaderScanner();
+        private String blockFirstLine;
+        private boolean blockStartsWithHeader;
+        private final StringBuilder blockRest = new StringBuilder();
+        private WhatsAppMessage next;
+        private boolean endOfFile;
+        private int lineCount;
+        private int messageCount;
+
+        private MessageIterator(BufferedReader reader, ChatDateFormat dateFormat) {
+            this.reader = reader;
+            this.dateFormat = dateFormat;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !endOfFile) {
+                readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public WhatsAppMessage next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            WhatsAppMessage message = next;
+            next = null;
+            messageCount++;
+            return message;
+        }
+
+        private void readNext() {
             try {
-                String dateStr = matcher.group(1);
-                String timeStr = matcher.group(2);
-                String author = matcher.group(3).trim();
-                String content = matcher.group(4).trim();
-
-                // Parse the date using flexible formatter
-                LocalDate date = LocalDate.parse(dateStr, DATE_FORMATTER);
-                
-                // Create a LocalDateTime with the parsed date (time not crucial for Friday filtering)
-                LocalDateTime timestamp = date.atStartOfDay();
-
-                logger.debug("Parsed message: Date={}, Author={}, Content length={}", 
-                           date, author, content.length());
-
-                return new WhatsAppMessage(timestamp, author, content);
-                
-            } catch (DateTimeParseException e) {
-                logger.warn("Could not parse date from message block: {}", 
-                          trimmedBlock.substring(0, Math.min(100, trimmedBlock.length())), e);
-                return null;
-            } catch (Exception e) {
-                logger.warn("Error parsing message block: {}", 
-                          trimmedBlock.substring(0, Math.min(100, trimmedBlock.length())), e);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineCount++;
+
+                    if (lineHeader.scan(line)) {
+                        // A new message completes the block collected so far
+                        WhatsAppMessage completed = completeBlock();
+                        WhatsAppHeaderScanner header = blockHeader;
+                        blockHeader = lineHeader;
+                        lineHeader = header;
+                        blockFirstLine = line;
+                        blockStartsWithHeader = true;
+
+                        if (completed != null) {
+                            next = completed;
+                            return;
+                        }
+                    } else if (blockFirstLine == null) {
+                        // Lines before the first message start a block of their own
+                        if (!line.isEmpty()) {
+                            blockFirstLine = line;
+                            blockStartsWithHeader = false;
+                        }
+                    } else {
+                        blockRest.append(line);
+                        if (!line.isEmpty()) {
+                            blockRest.append(System.lineSeparator());
+                        }
+                    }
+                }
+
+                // Parse the final message block
+                endOfFile = true;
+                next = completeBlock();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private WhatsAppMessage completeBlock() {
+            String firstLine = blockFirstLine;
+            if (firstLine == null) {
                 return null;
             }
-        } else {
-            logger.debug("Message block did not match pattern: {}", 
+            blockFirstLine = null;
+
+            WhatsAppMessage message;
+            if (blockStartsWithHeader) {
+                // Single-line messages, the common case, need no copy beyond the content itself
+                String content = blockRest.length() == 0
+                        ? firstLine.substring(blockHeader.contentStart).trim()
+                        : (firstLine.substring(blockHeader.contentStart) + System.lineSeparator() + blockRest).trim();
+                // Whitespace-only content does not count as a message, as with the trimmed block
+                message = content.isEmpty() ? null : toMessage(firstLine, blockHeader, dateFormat, content);
+            } else {
+                message = parseMessageBlock(firstLine + System.lineSeparator() + blockRest, blockHeader, dateFormat);
+            }
+            blockRest.setLength(0);
+            return message;
+        }
+    }
+
+    /**
+     * Parses a complete message block (potentially multi-line) that has not been scanned yet
+     */
+    private WhatsAppMessage parseMessageBlock(String block, WhatsAppHeaderScanner header, ChatDateFormat dateFormat) {
+        String trimmedBlock = block.trim();
+        if (trimmedBlock.isEmpty()) {
+            return null;
+        }
+
+        if (!header.scan(trimmedBlock)) {
+            logger.debug("Message block did not match pattern: {}",
                        trimmedBlock.substring(0, Math.min(50, trimmedBlock.length())));
             return null;
         }
+        return toMessage(trimmedBlock, header, dateFormat, trimmedBlock.substring(header.contentStart).trim());
+    }
+
+    /**
+     * Builds the message from a block whose header offsets are already known
+     * @param text the block, or its first line; the header offsets point into it
+     */
+    private WhatsAppMessage toMessage(String text, WhatsAppHeaderScanner header, ChatDateFormat dateFormat, String content) {
+        long epochDay = dateFormat.toEpochDay(text, header.dateStart, header.dateEnd);
+        if (epochDay == ChatDateFormat.INVALID) {
+            logger.warn("Could not parse date as {} from message block: {}",
+                      dateFormat.getPattern(), text.substring(0, Math.min(100, text.length())));
+            return null;
+        }
+
+        try {
+            String author = text.substring(header.authorStart, header.authorEnd);
+
+            // Create a LocalDateTime with the parsed date (time not crucial for Friday filtering)
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            LocalDateTime timestamp = date.atStartOfDay();
+
+            logger.debug("Parsed message: Date={}, Author={}, Content length={}",
+                       date, author, content.length());
+
+            return new WhatsAppMessage(timestamp, author, content);
+
+        } catch (Exception e) {
+            logger.warn("Error parsing message block: {}",
+                      text.substring(0, Math.min(100, text.length())), e);
+            return null;
+        }
     }
 
     /**
@@ -156,16 +449,23 @@ public class WhatsAppParser {
         List<WhatsAppMessage> fridaySpotifyMessages = new ArrayList<>();
 
         for (WhatsAppMessage message : messages) {
-            if (message.isFriday() && message.hasSpotifyLink()) {
+            if (isFridaySpotifyMessage(message)) {
                 fridaySpotifyMessages.add(message);
-                logger.debug("Found Friday Spotify message: Date={}, Author={}, Content={}", 
-                           message.getTimestamp().toLocalDate(), 
-                           message.getAuthor(), 
-                           message.getContent().substring(0, Math.min(100, message.getContent().length())));
             }
         }
 
         logger.info("Found {} messages with Spotify links sent on Fridays", fridaySpotifyMessages.size());
         return fridaySpotifyMessages;
     }
+
+    private boolean isFridaySpotifyMessage(WhatsAppMessage message) {
+        if (message.isFriday() && message.hasSpotifyLink()) {
+            logger.debug("Found Friday Spotify message: Date={}, Author={}, Content={}", 
+                       message.getTimestamp().toLocalDate(), 
+                       message.getAuthor(), 
+                       message.getContent().substring(0, Math.min(100, message.getContent().length())));
+            return true;
+        }
+        return false;
+    }
 }
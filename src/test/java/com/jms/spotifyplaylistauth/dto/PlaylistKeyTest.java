@@ -0,0 +1,80 @@
+package com.jms.spotifyplaylistauth.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaylistKeyTest {
+
+    @Test
+    void bothWeeklySpellingsShareOneKey() {
+        PlaylistKey website = PlaylistKey.parse("Weekly Mix 07.03.2025");
+        PlaylistKey created = PlaylistKey.parse("JMS 07.03.25");
+
+        assertEquals(website, created);
+        assertTrue(website.isWeekly());
+        assertEquals(LocalDate.of(2025, 3, 7), website.getDate());
+        assertEquals("JMS 07.03.25", website.toJmsName());
+        assertEquals("Weekly Mix 07.03.2025", created.toWebsiteName());
+    }
+
+    @Test
+    void singleDigitDayIsAccepted() {
+        assertEquals(PlaylistKey.ofDate(LocalDate.of(2025, 3, 7)), PlaylistKey.parseKey("JMS 7.03.25"));
+    }
+
+    @Test
+    void mixNumbersAreNegativeKeys() {
+        PlaylistKey mix = PlaylistKey.parse("JMS Mix 12");
+
+        assertTrue(mix.isMix());
+        assertEquals(12, mix.getMixNumber());
+        assertEquals(PlaylistKey.ofMix(12), mix.getValue());
+        assertEquals("JMS Mix 12", mix.toWebsiteName());
+        assertEquals(PlaylistKey.ofMix(0), PlaylistKey.parseKey("JMS Mix 0"));
+    }
+
+    @Test
+    void otherNamesHaveNoKey() {
+        assertNull(PlaylistKey.parse(null));
+        assertNull(PlaylistKey.parse("Road trip"));
+        assertNull(PlaylistKey.parse("JMS Mix"));
+        assertNull(PlaylistKey.parse("JMS Mix 99999999999"));
+        assertNull(PlaylistKey.parse("JMS 31.02.25"));
+        assertNull(PlaylistKey.parse("JMS 07.3.25"));
+        assertNull(PlaylistKey.parse("JMS 07.03.255"));
+        assertNull(PlaylistKey.parse("Weekly Mix 07.03.25"));
+        assertNull(PlaylistKey.parse("Weekly Mix 07.03.1969"));
+        assertNull(PlaylistKey.parse("Copy of JMS Mix 12"));
+    }
+
+    @Test
+    void trailingTextAfterTheDateIsAllowed() {
+        assertEquals(PlaylistKey.parseKey("JMS 07.03.25"), PlaylistKey.parseKey("JMS 07.03.25 (extended)"));
+    }
+
+    @Test
+    void findKeyMatchesAnywhereInTheName() {
+        assertEquals(PlaylistKey.ofMix(12), PlaylistKey.findKey("Copy of JMS Mix 12"));
+        assertEquals(PlaylistKey.parseKey("JMS 07.03.25"), PlaylistKey.findKey("Old Weekly Mix 07.03.2025"));
+        assertEquals(PlaylistKey.parseKey("JMS 07.03.25"), PlaylistKey.findKey("Party JMS 07.03.25"));
+        assertEquals(PlaylistKey.parseKey("JMS 07.03.25"), PlaylistKey.findKey("JMS 07.03.25"));
+        assertEquals(PlaylistKey.NO_KEY, PlaylistKey.findKey("Just More Songs"));
+        assertEquals(PlaylistKey.NO_KEY, PlaylistKey.findKey(null));
+    }
+
+    @Test
+    void weeklyAndMixKeysNeverCollide() {
+        PlaylistKey weekly = PlaylistKey.of(PlaylistKey.ofDate(LocalDate.of(1970, 1, 1)));
+        PlaylistKey mix = PlaylistKey.of(PlaylistKey.ofMix(0));
+
+        assertFalse(weekly.equals(mix));
+        assertTrue(weekly.isWeekly());
+        assertTrue(mix.isMix());
+    }
+}
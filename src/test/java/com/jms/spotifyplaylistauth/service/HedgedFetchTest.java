@@ -0,0 +1,106 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedFetchTest {
+
+    private static final Duration DEADLINE = Duration.ofSeconds(5);
+
+    private final List<String> winners = new CopyOnWriteArrayList<>();
+
+    @Test
+    void fastPrimaryWinsWithoutStartingTheFallback() {
+        AtomicBoolean fallbackStarted = new AtomicBoolean();
+        String answer = new HedgedFetch<String>("test", Duration.ofSeconds(1), value -> !value.isEmpty())
+                .source("primary", Mono.just("primary answer"), DEADLINE)
+                .source("fallback", Mono.fromCallable(() -> {
+                    fallbackStarted.set(true);
+                    return "fallback answer";
+                }), DEADLINE)
+                .execute(winners::add)
+                .block();
+
+        assertEquals("primary answer", answer);
+        assertEquals(List.of("primary"), winners);
+        assertFalse(fallbackStarted.get());
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAfterTheDelay() {
+        String answer = new HedgedFetch<String>("test", Duration.ofMillis(20), value -> !value.isEmpty())
+                .source("primary", Mono.just("primary answer").delayElement(Duration.ofSeconds(2)), DEADLINE)
+                .source("fallback", Mono.just("fallback answer"), DEADLINE)
+                .execute(winners::add)
+                .block(Duration.ofSeconds(1));
+
+        assertEquals("fallback answer", answer);
+        assertEquals(List.of("fallback"), winners);
+    }
+
+    @Test
+    void failedOrInvalidSourceStartsTheNextOneAtOnce() {
+        String answer = new HedgedFetch<String>("test", Duration.ofSeconds(10), value -> !value.isEmpty())
+                .source("failing", Mono.error(new IllegalStateException("down")), DEADLINE)
+                .source("invalid", Mono.just(""), DEADLINE)
+                .source("last", Mono.just("last answer"), DEADLINE)
+                .execute(winners::add)
+                .block(Duration.ofSeconds(1));
+
+        assertEquals("last answer", answer);
+        assertEquals(List.of("last"), winners);
+    }
+
+    @Test
+    void hangingSourcesGiveUpAtTheirDeadline() {
+        String answer = new HedgedFetch<String>("test", Duration.ofMillis(10), value -> true)
+                .source("hanging", Mono.never(), Duration.ofMillis(50))
+                .source("also hanging", Mono.never(), Duration.ofMillis(50))
+                .execute(winners::add)
+                .block(Duration.ofSeconds(1));
+
+        assertNull(answer);
+        assertTrue(winners.isEmpty());
+    }
+
+    @Test
+    void simultaneousAnswersRecordOneWinner() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            winners.clear();
+            // Each source waits for the others to start, then all answer at once on their own threads
+            CountDownLatch started = new CountDownLatch(3);
+            CompletableFuture<String> answer = new HedgedFetch<String>("test", Duration.ZERO, value -> true)
+                    .source("a", answerTogether(started, "a"), DEADLINE)
+                    .source("b", answerTogether(started, "b"), DEADLINE)
+                    .source("c", answerTogether(started, "c"), DEADLINE)
+                    .execute(winners::add)
+                    .toFuture();
+
+            String value = answer.get(1, TimeUnit.SECONDS);
+            Thread.sleep(20);
+            assertEquals(List.of(value), winners);
+        }
+    }
+
+    private static Mono<String> answerTogether(CountDownLatch started, String value) {
+        return Mono.fromCallable(() -> {
+            started.countDown();
+            started.await(1, TimeUnit.SECONDS);
+            return value;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+}
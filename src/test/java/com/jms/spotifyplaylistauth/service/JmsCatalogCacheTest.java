@@ -0,0 +1,235 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JmsCatalogCacheTest {
+
+    private static final long HOUR = 3_600_000;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    // Background refreshes wait here until the test runs them
+    private final Queue<Runnable> refreshQueue = new ArrayDeque<>();
+    private final Executor queuedExecutor = refreshQueue::add;
+
+    @Test
+    void freshCopyIsServedWithoutReloading() {
+        JmsCatalogCache cache = new JmsCatalogCache(loading(Set.of("JMS 07.03.25")), queuedExecutor, HOUR, HOUR);
+
+        assertEquals(Set.of("JMS 07.03.25"), cache.get());
+        assertEquals(Set.of("JMS 07.03.25"), cache.get());
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void callersGetTheirOwnCopy() {
+        JmsCatalogCache cache = new JmsCatalogCache(loading(Set.of("JMS 07.03.25")), queuedExecutor, HOUR, HOUR);
+
+        cache.get().add("JMS Mix 1");
+
+        assertEquals(Set.of("JMS 07.03.25"), cache.get());
+    }
+
+    @Test
+    void staleCopyIsServedWhileOneRefreshRunsInTheBackground() throws InterruptedException {
+        List<Set<String>> catalogs = List.of(Set.of("old"), Set.of("new"));
+        JmsCatalogCache cache = new JmsCatalogCache(() -> catalogs.get(loads.getAndIncrement()), queuedExecutor, 0, HOUR);
+        cache.get();
+        Thread.sleep(2);
+
+        assertEquals(Set.of("old"), cache.get());
+        assertEquals(Set.of("old"), cache.get());
+        assertEquals(1, refreshQueue.size());
+        assertEquals(true, cache.getStats().get("refreshing"));
+
+        refreshQueue.poll().run();
+        Thread.sleep(2);
+
+        assertEquals(Set.of("new"), cache.get());
+        assertEquals(2, loads.get());
+        assertEquals(3L, cache.getStats().get("staleHits"));
+    }
+
+    @Test
+    void copyPastTheStaleLimitIsReloadedByTheCaller() throws InterruptedException {
+        List<Set<String>> catalogs = List.of(Set.of("old"), Set.of("new"));
+        JmsCatalogCache cache = new JmsCatalogCache(() -> catalogs.get(loads.getAndIncrement()), queuedExecutor, 0, 0);
+        cache.get();
+        Thread.sleep(2);
+
+        assertEquals(Set.of("new"), cache.get());
+        assertTrue(refreshQueue.isEmpty());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JmsCatalogCache cache = new JmsCatalogCache(() -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return Set.of("JMS Mix 1");
+        }, queuedExecutor, HOUR, HOUR);
+
+        CompletableFuture<Set<String>> first = CompletableFuture.supplyAsync(cache::get);
+        assertTrue(loading.await(1, TimeUnit.SECONDS));
+        List<CompletableFuture<Set<String>>> others = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            others.add(CompletableFuture.supplyAsync(cache::get));
+        }
+        Thread.sleep(20);
+        release.countDown();
+
+        assertEquals(Set.of("JMS Mix 1"), first.get(1, TimeUnit.SECONDS));
+        for (CompletableFuture<Set<String>> other : others) {
+            assertEquals(Set.of("JMS Mix 1"), other.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedOrEmptyLoadKeepsThePreviousCopy() throws InterruptedException {
+        List<Supplier<Set<String>>> answers = List.of(
+                () -> Set.of("old"),
+                () -> {
+                    throw new IllegalStateException("JMS is down");
+                },
+                Set::of);
+        JmsCatalogCache cache = new JmsCatalogCache(() -> answers.get(loads.getAndIncrement()).get(), queuedExecutor, 0, 0);
+        cache.get();
+        Thread.sleep(2);
+
+        assertEquals(Set.of("old"), cache.get());
+        assertEquals(Set.of("old"), cache.get());
+
+        assertEquals(3, loads.get());
+        assertEquals(1L, cache.getStats().get("refreshFailures"));
+    }
+
+    @Test
+    void failedFirstLoadGivesAnEmptyCatalog() {
+        JmsCatalogCache cache = new JmsCatalogCache(() -> {
+            throw new IllegalStateException("JMS is down");
+        }, queuedExecutor, HOUR, HOUR);
+
+        assertTrue(cache.get().isEmpty());
+        assertEquals(false, cache.getStats().get("refreshing"));
+    }
+
+    @Test
+    void seededCopyIsServedAtOnceAndRefreshed() {
+        JmsCatalogCache cache = new JmsCatalogCache(loading(Set.of("new")), queuedExecutor, HOUR, HOUR);
+        cache.seed(Set.of("from disk"));
+        cache.seed(Set.of("ignored"));
+
+        assertEquals(Set.of("from disk"), cache.get());
+        assertEquals(0, loads.get());
+
+        refreshQueue.poll().run();
+
+        assertEquals(Set.of("new"), cache.get());
+    }
+
+    @Test
+    void rejectedRefreshStillServesTheStaleCopy() throws InterruptedException {
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("shutting down");
+        };
+        JmsCatalogCache cache = new JmsCatalogCache(loading(Set.of("old")), rejecting, 0, HOUR);
+        cache.get();
+        Thread.sleep(2);
+
+        assertEquals(Set.of("old"), cache.get());
+        assertEquals(false, cache.getStats().get("refreshing"));
+    }
+
+    @Test
+    void invalidateForcesTheNextCallerToLoad() {
+        JmsCatalogCache cache = new JmsCatalogCache(loading(Set.of("JMS Mix 1")), queuedExecutor, HOUR, HOUR);
+        cache.get();
+
+        cache.invalidate();
+
+        assertEquals(-1, cache.getAgeMillis());
+        assertEquals(Set.of("JMS Mix 1"), cache.get());
+        assertEquals(2, loads.get());
+        assertTrue(cache.getAgeMillis() >= 0);
+    }
+
+    @Test
+    void fallbackOnAColdCacheIsServedAsStaleAndRetried() {
+        List<Supplier<Set<String>>> answers = List.of(
+                () -> {
+                    throw new JmsCatalogCache.FallbackCatalogException("JMS is down", Set.of("hardcoded"));
+                },
+                () -> Set.of("fetched"));
+        JmsCatalogCache cache = new JmsCatalogCache(() -> answers.get(loads.getAndIncrement()).get(), queuedExecutor, HOUR, HOUR);
+
+        assertEquals(Set.of("hardcoded"), cache.get());
+        assertEquals(JmsCatalogCache.CatalogSource.FALLBACK, cache.getSource());
+        assertTrue(cache.getAgeMillis() > HOUR);
+
+        // The next caller still gets the fallback at once, and retries the load in the background
+        assertEquals(Set.of("hardcoded"), cache.get());
+        refreshQueue.poll().run();
+
+        assertEquals(Set.of("fetched"), cache.get());
+        assertEquals(JmsCatalogCache.CatalogSource.UPSTREAM, cache.getSource());
+        assertEquals(1L, cache.getStats().get("fallbacks"));
+    }
+
+    @Test
+    void fallbackKeepsThePreviousCopyButMarksItStale() {
+        List<Supplier<Set<String>>> answers = List.of(
+                () -> Set.of("fetched"),
+                () -> {
+                    throw new JmsCatalogCache.FallbackCatalogException("JMS is down", Set.of("hardcoded"));
+                });
+        JmsCatalogCache cache = new JmsCatalogCache(() -> answers.get(loads.getAndIncrement()).get(), queuedExecutor, HOUR, HOUR);
+        cache.get();
+
+        CompletableFuture<Set<String>> refresh = cache.refresh();
+        refreshQueue.poll().run();
+
+        assertTrue(refresh.isCompletedExceptionally());
+
+        assertEquals(Set.of("fetched"), cache.get());
+        assertEquals(JmsCatalogCache.CatalogSource.FALLBACK, cache.getSource());
+        assertTrue(cache.getAgeMillis() > HOUR);
+        assertEquals(1, refreshQueue.size());
+    }
+
+    private Supplier<Set<String>> loading(Set<String> names) {
+        return () -> {
+            loads.incrementAndGet();
+            return names;
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.jms.spotifyplaylistauth.dto.JmsPlaylistEntry;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JmsPlaylistJsonReaderTest {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final NettyDataBufferFactory BUFFERS = new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+
+    private static final String CATALOG = """
+            {"status": "ok", "count": 3, "playlists": [
+              {"id": 1, "title": "Weekly Mix 07.03.2025", "link": "https://open.spotify.com/playlist/a",
+               "tag": ["weekly", "friday"], "plays": 12, "public": true, "cover": null},
+              {"title": "JMS Mix 12", "link": "https://open.spotify.com/playlist/b", "tag": "mix",
+               "artwork": {"url": "https://example.com/12.jpg", "size": [640, 640]}},
+              {"title": "Zoë’s “Friday” ✓", "tag": []},
+              {"link": "https://open.spotify.com/playlist/untitled"}
+            ]}""";
+
+    @Test
+    void keepsTitleLinkAndTagsOfEachPlaylist() {
+        List<JmsPlaylistEntry> entries = read(CATALOG, Integer.MAX_VALUE);
+
+        assertEquals(List.of("Weekly Mix 07.03.2025", "JMS Mix 12", "Zoë’s “Friday” ✓"), titles(entries));
+        assertEquals("https://open.spotify.com/playlist/a", entries.get(0).getLink());
+        assertEquals(List.of("weekly", "friday"), entries.get(0).getTags());
+        assertEquals(List.of("mix"), entries.get(1).getTags());
+        assertEquals(List.of(), entries.get(2).getTags());
+        assertNull(entries.get(2).getLink());
+    }
+
+    @Test
+    void readsABareArray() {
+        String catalog = "[{\"title\": \"JMS 07.03.25\", \"link\": \"x\"}, {\"title\": \"JMS Mix 1\"}]";
+
+        assertEquals(List.of("JMS 07.03.25", "JMS Mix 1"), titles(read(catalog, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void sameResultWhateverTheBufferBoundaries() {
+        List<String> expected = describe(read(CATALOG, Integer.MAX_VALUE));
+
+        // Small buffers split field names, strings and multi-byte characters
+        for (int size = 1; size <= 17; size++) {
+            assertEquals(expected, describe(read(CATALOG, size)), "buffer size " + size);
+        }
+    }
+
+    @Test
+    void everyBufferIsReleased() {
+        List<NettyDataBuffer> buffers = buffers(CATALOG, 5);
+
+        JmsPlaylistJsonReader.read(Flux.fromIterable(buffers), JSON).block();
+
+        for (NettyDataBuffer buffer : buffers) {
+            assertEquals(0, buffer.getNativeBuffer().refCnt());
+        }
+    }
+
+    @Test
+    void malformedJsonIsAnError() {
+        String truncated = CATALOG.substring(0, CATALOG.length() / 2) + "}";
+
+        assertThrows(RuntimeException.class, () -> read(truncated, 8));
+    }
+
+    private static List<JmsPlaylistEntry> read(String json, int bufferSize) {
+        return JmsPlaylistJsonReader.read(Flux.fromIterable(buffers(json, bufferSize)), JSON).block();
+    }
+
+    private static List<NettyDataBuffer> buffers(String json, int bufferSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<NettyDataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += bufferSize) {
+            int end = (int) Math.min((long) offset + bufferSize, bytes.length);
+            DataBuffer buffer = BUFFERS.wrap(Arrays.copyOfRange(bytes, offset, end));
+            buffers.add((NettyDataBuffer) buffer);
+        }
+        return buffers;
+    }
+
+    private static List<String> titles(List<JmsPlaylistEntry> entries) {
+        return entries.stream().map(JmsPlaylistEntry::getTitle).toList();
+    }
+
+    private static List<String> describe(List<JmsPlaylistEntry> entries) {
+        return entries.stream().map(entry -> entry.getTitle() + "|" + entry.getLink() + "|" + entry.getTags()).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.jms.spotifyplaylistauth.dto.SpotifyPlaylist;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaylistCatalogCacheTest {
+
+    private final PlaylistCatalogCache cache = new PlaylistCatalogCache(60_000, 2);
+
+    @Test
+    void servesTheStoredCatalogUntilItExpires() throws Exception {
+        cache.put("user", List.of(new SpotifyPlaylist("p1", "JMS 01.01.25", "s1")));
+        assertEquals("p1", cache.get("user").get(0).getId());
+        assertNull(cache.get("other"));
+
+        PlaylistCatalogCache expiring = new PlaylistCatalogCache(0, 2);
+        expiring.put("user", List.of(new SpotifyPlaylist("p1", "JMS 01.01.25", "s1")));
+        Thread.sleep(5);
+        assertNull(expiring.get("user"));
+    }
+
+    @Test
+    void refreshKeepsUnchangedPlaylistsAndCountsChangedOnes() {
+        SpotifyPlaylist unchanged = new SpotifyPlaylist("p1", "JMS 01.01.25", "s1");
+        cache.put("user", List.of(unchanged, new SpotifyPlaylist("p2", "JMS 08.01.25", "s1")));
+
+        int stale = cache.put("user", List.of(
+                new SpotifyPlaylist("p1", "JMS 01.01.25", "s1"),
+                new SpotifyPlaylist("p2", "JMS 08.01.25", "s2"),
+                new SpotifyPlaylist("p3", "JMS 15.01.25", "s1")));
+
+        assertEquals(2, stale);
+        assertSame(unchanged, cache.get("user").get(0));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedUser() {
+        cache.put("a", List.of());
+        cache.put("b", List.of());
+        cache.get("a");
+        cache.put("c", List.of());
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    void writesThroughCreatedAndDeletedPlaylists() {
+        cache.put("user", List.of(new SpotifyPlaylist("p1", "JMS 01.01.25", "s1")));
+
+        cache.addPlaylist("user", new SpotifyPlaylist("p2", "JMS 08.01.25", "s1"));
+        assertEquals("p2", cache.get("user").get(0).getId());
+
+        cache.removePlaylist("user", "p1");
+        assertEquals(1, cache.get("user").size());
+
+        // Nothing is cached for a user whose catalog was never loaded
+        cache.addPlaylist("other", new SpotifyPlaylist("p3", "JMS 15.01.25", "s1"));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    void snapshotUpdateReachesEveryCatalogListingThePlaylist() {
+        cache.put("owner", List.of(new SpotifyPlaylist("shared", "JMS 01.01.25", "s1")));
+        cache.put("follower", List.of(new SpotifyPlaylist("shared", "JMS 01.01.25", "s1")));
+
+        cache.updateSnapshotId("shared", "s2");
+
+        assertFalse(cache.isStale("owner", "shared", "s2"));
+        assertFalse(cache.isStale("follower", "shared", "s2"));
+        assertTrue(cache.isStale("owner", "shared", "s1"));
+        assertTrue(cache.isStale("owner", "unknown", "s2"));
+    }
+
+    @Test
+    void statsDoNotExposeCacheKeys() {
+        cache.put("spotify-user-id", List.of());
+
+        assertFalse(cache.getStats().toString().contains("spotify-user-id"));
+        assertEquals(1, cache.getStats().get("entries"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.jms.spotifyplaylistauth.service;
+
+import com.jms.spotifyplaylistauth.dto.PlaylistKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaylistKeySetTest {
+
+    @Test
+    void anySpellingOfANameIsFound() {
+        PlaylistKeySet set = new PlaylistKeySet().addNames(List.of("Weekly Mix 07.03.2025", "JMS Mix 12", "Road trip"));
+
+        assertEquals(2, set.size());
+        assertTrue(set.containsName("JMS 07.03.25"));
+        assertTrue(set.containsName("Weekly Mix 07.03.2025"));
+        assertTrue(set.containsName("JMS Mix 12"));
+        assertFalse(set.containsName("JMS 14.03.25"));
+        assertFalse(set.containsName("Road trip"));
+        assertFalse(set.containsName(null));
+    }
+
+    @Test
+    void addReportsWhetherTheKeyWasNew() {
+        PlaylistKeySet set = new PlaylistKeySet();
+
+        assertTrue(set.add(PlaylistKey.ofMix(3)));
+        assertFalse(set.add(PlaylistKey.ofMix(3)));
+        assertFalse(set.add(PlaylistKey.NO_KEY));
+        assertFalse(set.contains(PlaylistKey.NO_KEY));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        PlaylistKeySet set = new PlaylistKeySet(2);
+        LocalDate first = LocalDate.of(2020, 1, 3);
+        for (int week = 0; week < 1000; week++) {
+            assertTrue(set.add(PlaylistKey.ofDate(first.plusWeeks(week))));
+            assertTrue(set.add(PlaylistKey.ofMix(week)));
+        }
+
+        assertEquals(2000, set.size());
+        for (int week = 0; week < 1000; week++) {
+            assertTrue(set.contains(PlaylistKey.ofDate(first.plusWeeks(week))));
+            assertTrue(set.contains(PlaylistKey.ofMix(week)));
+            assertFalse(set.contains(PlaylistKey.ofDate(first.plusWeeks(week).plusDays(1))));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaylistNameScannerTest {
+
+    private static final String PAGE = """
+            <html><head><title>JMS 01.01.24 | Jurassic Music Society</title></head><body>
+            <div class="playlist-card"><a href="https://open.spotify.com/playlist/a">JMS 02.01.24</a></div>
+            <div class="playlist-card"><a href="https://open.spotify.com/playlist/b">JMS_03_01_24</a></div>
+            <div class="playlist-card"><a>JMS\t04.01.24</a><a>JMS
+            05.01.24</a><a>JMS _ 06_01.24</a></div>
+            <div class="playlist-card"><a>JMS Mix 7</a><a>JMS Mix 12 (extended)</a></div>
+            <div class="playlist-card"><a>JMS Mix 1234567890123456789012345</a></div>
+            <p>Malformed: JMS 1.02.24, JMS 01.2.24, JMS 01.02.2, JMS Mix, JMS Mix x, JMS  Mix 9, JMS_Mix 4,
+            JM S 01.02.24, JMSX 01.02.24, JMS-01.02.24, JMS 01-02-24, JMS 01:02:24</p>
+            <p>Run together: JMSJMS 07.01.24, JMS JMS 08.01.24, JMS 09.01.245, JMS Mix 3JMS Mix 4, JMS 10.01.2411.01.24</p>
+            <p>Unicode around names: “JMS 12.01.24” – JMS Mix 15 ✓</p>
+            <script>{"name":"JMS 13.01.24","title":"JMS Mix 16"}</script></body></html>
+            JMS Mix 99""";
+
+    @Test
+    void findsTheSameNamesAsTheOldRegexes() {
+        Set<String> expected = PlaylistNameScanComparison.extractWithRegexes(PAGE);
+
+        assertEquals(expected, PlaylistNameScanner.scanText(PAGE));
+    }
+
+    @Test
+    void keepsLongMixNumbersWhole() {
+        Set<String> names = PlaylistNameScanner.scanText(PAGE);
+
+        assertTrue(names.contains("JMS Mix 1234567890123456789012345"));
+        assertTrue(names.contains("JMS Mix 99"));
+        assertFalse(names.contains("JMS Mix 123456789"));
+    }
+
+    @Test
+    void normalisesUnderscoreDates() {
+        Set<String> names = PlaylistNameScanner.scanText(PAGE);
+
+        assertTrue(names.contains("JMS 03.01.24"));
+        assertTrue(names.contains("JMS 06.01.24"));
+        assertFalse(names.contains("JMS 01.02.24"));
+    }
+
+    @Test
+    void malformedNamesAreIgnored() {
+        String malformed = "JMS 1.02.24 JMS 01.2.24 JMS 01.02.2 JMS Mix JMS Mix x JMS  Mix 9 JMS_Mix 4 JMSX 01.02.24";
+
+        assertEquals(PlaylistNameScanComparison.extractWithRegexes(malformed), PlaylistNameScanner.scanText(malformed));
+        assertTrue(PlaylistNameScanner.scanText(malformed).isEmpty());
+    }
+
+    @Test
+    void namesSplitAcrossBuffersAreFound() {
+        byte[] page = PAGE.getBytes(StandardCharsets.UTF_8);
+        DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+
+        for (int chunkSize : new int[]{1, 3, 7, 64}) {
+            List<DataBuffer> buffers = new ArrayList<>();
+            for (int offset = 0; offset < page.length; offset += chunkSize) {
+                int length = Math.min(chunkSize, page.length - offset);
+                buffers.add(factory.wrap(Arrays.copyOfRange(page, offset, offset + length)));
+            }
+
+            assertEquals(PlaylistNameScanComparison.extractWithRegexes(PAGE),
+                    PlaylistNameScanner.scan(Flux.fromIterable(buffers)).block(), "chunk size " + chunkSize);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private Mono<String> call(Sinks.One<String> upstream) {
+        return singleFlight.execute("key", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        });
+    }
+
+    @Test
+    void staggeredCallersShareOneUpstreamCall() throws Exception {
+        Sinks.One<String> upstream = Sinks.one();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(Mono.delay(Duration.ofMillis(i * 10L))
+                    .then(call(upstream))
+                    .toFuture());
+        }
+
+        Thread.sleep(150);
+        upstream.tryEmitValue("response");
+
+        for (CompletableFuture<String> result : results) {
+            assertEquals("response", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(7L, singleFlight.getStats().get("coalesced"));
+        assertEquals(0, singleFlight.getStats().get("inFlight"));
+    }
+
+    @Test
+    void callerJoiningWhileTheResultIsDeliveredGetsTheResult() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicReference<String> lateResult = new AtomicReference<>();
+
+        // The late caller joins from inside the first caller's onNext, before the key is released
+        Mono<String> first = call(upstream)
+                .doOnNext(value -> call(upstream).subscribe(lateResult::set));
+        CompletableFuture<String> firstResult = first.toFuture();
+        upstream.tryEmitValue("response");
+
+        assertEquals("response", firstResult.join());
+        assertEquals("response", lateResult.get());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void callerAfterCompletionStartsANewCall() {
+        Sinks.One<String> firstUpstream = Sinks.one();
+        CompletableFuture<String> firstResult = call(firstUpstream).toFuture();
+        firstUpstream.tryEmitValue("first");
+        assertEquals("first", firstResult.join());
+
+        Sinks.One<String> secondUpstream = Sinks.one();
+        CompletableFuture<String> secondResult = call(secondUpstream).toFuture();
+        secondUpstream.tryEmitValue("second");
+
+        assertEquals("second", secondResult.join());
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void failureIsSharedAndReleasesTheKey() {
+        Sinks.One<String> upstream = Sinks.one();
+        CompletableFuture<String> first = call(upstream).toFuture();
+        CompletableFuture<String> second = call(upstream).toFuture();
+        upstream.tryEmitError(new IllegalStateException("boom"));
+
+        assertEquals("boom", first.handle((value, e) -> e.getCause() != null ? e.getCause().getMessage() : e.getMessage()).join());
+        assertEquals("boom", second.handle((value, e) -> e.getCause() != null ? e.getCause().getMessage() : e.getMessage()).join());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0, singleFlight.getStats().get("inFlight"));
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() {
+        Mono<String> a = singleFlight.execute("a", () -> Mono.just("a"));
+        Mono<String> b = singleFlight.execute("b", () -> Mono.just("b"));
+
+        assertEquals("a", a.block());
+        assertEquals("b", b.block());
+        assertEquals(0L, singleFlight.getStats().get("coalesced"));
+    }
+
+    @Test
+    void upstreamIsCancelledWhenTheLastCallerCancels() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> upstream = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+        Mono<String> first = singleFlight.execute("key", () -> upstream);
+        Mono<String> second = singleFlight.execute("key", () -> upstream);
+
+        Disposable firstCaller = first.subscribe();
+        Disposable secondCaller = second.subscribe();
+        firstCaller.dispose();
+        assertFalse(cancelled.get());
+        assertEquals(1, singleFlight.getStats().get("inFlight"));
+
+        secondCaller.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.getStats().get("inFlight"));
+    }
+
+    @Test
+    void callerAfterACancelledCallStartsANewCall() {
+        Sinks.One<String> firstUpstream = Sinks.one();
+        call(firstUpstream).subscribe().dispose();
+
+        Sinks.One<String> secondUpstream = Sinks.one();
+        CompletableFuture<String> secondResult = call(secondUpstream).toFuture();
+        secondUpstream.tryEmitValue("second");
+
+        assertEquals("second", secondResult.join());
+        assertEquals(2, upstreamCalls.get());
+    }
+}
@@ -0,0 +1,45 @@
+package com.jms.spotifyplaylistauth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpotifyFieldProjectionTest {
+
+    @Test
+    void fieldsAreSentOnceToEndpointsThatAcceptThem() {
+        String url = "https://api.spotify.com/v1/playlists/abc/tracks?limit=100";
+        String projected = SpotifyFieldProjection.PLAYLIST_TRACKS.apply(url);
+
+        assertEquals(url + "&fields=next,total,items(track(uri))", projected);
+        // A next link built by Spotify from a projected request already carries the filter
+        assertEquals(projected, SpotifyFieldProjection.PLAYLIST_TRACKS.apply(projected));
+        assertEquals("https://api.spotify.com/v1/playlists/abc/tracks?fields=total",
+                SpotifyFieldProjection.PLAYLIST_TRACK_COUNT.apply("https://api.spotify.com/v1/playlists/abc/tracks"));
+    }
+
+    @Test
+    void endpointsThatIgnoreFieldsAreLeftAlone() {
+        String listing = "https://api.spotify.com/v1/me/playlists?offset=50&limit=50";
+
+        assertEquals(listing, SpotifyFieldProjection.PLAYLIST_LISTING.apply(listing));
+        assertEquals("https://api.spotify.com/v1/me", SpotifyFieldProjection.USER_PROFILE.apply("https://api.spotify.com/v1/me"));
+    }
+
+    @Test
+    void clientSideProjectionKeepsTopLevelFields() {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("id", "dan");
+        profile.put("display_name", "Dan");
+        profile.put("followers", Map.of("total", 3));
+        profile.put("images", List.of());
+        profile.put("country", "GB");
+
+        assertEquals(List.of("id", "display_name", "images"),
+                List.copyOf(SpotifyFieldProjection.USER_PROFILE.project(profile).keySet()));
+    }
+}
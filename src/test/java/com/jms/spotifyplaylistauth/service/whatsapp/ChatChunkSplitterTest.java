@@ -0,0 +1,106 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatChunkSplitterTest {
+
+    private static final String CHAT = """
+            2/16/24, 07:44 - Dan: first
+            2/16/24, 07:45 - Sam: second
+            2/16/24, 07:46 - Dan: third
+            2/16/24, 07:47 - Sam: fourth
+            """;
+
+    @Test
+    void boundsCoverTheWholeChatAndStartOnHeaders() {
+        ByteBuffer chat = buffer(CHAT);
+
+        for (int chunks = 1; chunks <= 8; chunks++) {
+            int[] bounds = ChatChunkSplitter.split(chat, chunks);
+
+            assertEquals(0, bounds[0]);
+            assertEquals(chat.limit(), bounds[bounds.length - 1]);
+            assertTrue(bounds.length - 1 <= Math.min(chunks, 4), "chunks " + chunks);
+            for (int i = 1; i < bounds.length - 1; i++) {
+                assertTrue(bounds[i] > bounds[i - 1]);
+                assertEquals('\n', chat.get(bounds[i] - 1));
+                assertTrue(new WhatsAppHeaderScanner().scan(line(chat, bounds[i])), "bound " + bounds[i]);
+            }
+        }
+    }
+
+    @Test
+    void oneChunkPerMessageWhenTargetsFallOnEachLine() {
+        ByteBuffer chat = buffer(CHAT);
+
+        assertArrayEquals(new int[]{0, CHAT.indexOf("2/16/24, 07:45"), CHAT.indexOf("2/16/24, 07:46"),
+                        CHAT.indexOf("2/16/24, 07:47"), chat.limit()},
+                ChatChunkSplitter.split(chat, 4));
+    }
+
+    @Test
+    void messageSpanningASplitTargetStaysInOneChunk() throws IOException {
+        String longMessage = "2/16/24, 07:45 - Sam: a long message\n"
+                + "continued: 2/16/24, 07:46 - not a header\n".repeat(20)
+                + "the end\n";
+        String text = "2/16/24, 07:44 - Dan: first\n" + longMessage + "2/16/24, 07:47 - Dan: last\n";
+        ByteBuffer chat = buffer(text);
+
+        int[] bounds = ChatChunkSplitter.split(chat, 2);
+
+        // The middle of the chat falls inside the long message, so the split moves on to the next header
+        assertArrayEquals(new int[]{0, text.indexOf("2/16/24, 07:47"), chat.limit()}, bounds);
+        assertEquals("2/16/24, 07:44 - Dan: first\n" + longMessage, read(chat, bounds[0], bounds[1]));
+        assertEquals("2/16/24, 07:47 - Dan: last\n", read(chat, bounds[1], bounds[2]));
+    }
+
+    @Test
+    void chatWithOneMessageIsOneChunk() {
+        ByteBuffer chat = buffer("2/16/24, 07:44 - Dan: only\nmore of it\nand more\n");
+
+        assertArrayEquals(new int[]{0, chat.limit()}, ChatChunkSplitter.split(chat, 4));
+    }
+
+    @Test
+    void multiByteTextAndCarriageReturnsDoNotHideHeaders() throws IOException {
+        String text = "2/16/24, 07:44 - Dan: “quoted” ✓\r\n2/16/24, 07:45 - Zoë: é\r\n";
+        ByteBuffer chat = buffer(text);
+
+        int[] bounds = ChatChunkSplitter.split(chat, 2);
+
+        assertEquals(3, bounds.length);
+        assertEquals("2/16/24, 07:45 - Zoë: é\r\n", read(chat, bounds[1], bounds[2]));
+    }
+
+    @Test
+    void emptyChatIsOneEmptyChunk() {
+        assertArrayEquals(new int[]{0, 0}, ChatChunkSplitter.split(buffer(""), 4));
+    }
+
+    private static ByteBuffer buffer(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String line(ByteBuffer chat, int start) {
+        int end = start;
+        while (end < chat.limit() && chat.get(end) != '\n') {
+            end++;
+        }
+        return new String(chat.array(), start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static String read(ByteBuffer chat, int start, int end) throws IOException {
+        try (InputStream chunk = ChatChunkSplitter.open(chat, start, end)) {
+            return new String(chunk.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
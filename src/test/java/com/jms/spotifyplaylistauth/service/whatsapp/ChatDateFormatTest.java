@@ -0,0 +1,111 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatDateFormatTest {
+
+    @Test
+    void dayAboveTwelveInTheFirstFieldMeansDayFirst() throws IOException {
+        ChatDateFormat format = detect(
+                "03/01/24, 10:00 - Dan: morning",
+                "a continuation line mentioning 25/12/24",
+                "13/01/24, 10:05 - Sam: https://open.spotify.com/track/abc");
+
+        assertTrue(format.isDayFirst());
+        assertEquals("dd/MM/yy", format.getPattern());
+        assertEquals(2, format.getSampledDates());
+        assertEquals(LocalDate.of(2024, 1, 3), epochDay(format, "03/01/24"));
+    }
+
+    @Test
+    void dayAboveTwelveInTheSecondFieldMeansMonthFirst() throws IOException {
+        ChatDateFormat format = detect(
+                "1/3/24, 10:00 - Dan: morning",
+                "1/13/24, 10:05 - Sam: https://open.spotify.com/track/abc");
+
+        assertFalse(format.isDayFirst());
+        assertEquals("M/d/yy", format.getPattern());
+        assertEquals(LocalDate.of(2024, 1, 3), epochDay(format, "1/3/24"));
+    }
+
+    @Test
+    void ambiguousSlashedDatesAreReadMonthFirst() throws IOException {
+        ChatDateFormat format = detect(
+                "03/04/24, 10:00 - Dan: morning",
+                "04/05/24, 10:00 - Dan: morning");
+
+        assertFalse(format.isDayFirst());
+        assertEquals(LocalDate.of(2024, 3, 4), epochDay(format, "03/04/24"));
+    }
+
+    @Test
+    void ambiguousDottedDatesAreReadDayFirst() throws IOException {
+        ChatDateFormat format = detect(
+                "[03.04.24, 10:00:00] Dan: morning",
+                "[04.05.24, 10:00:00] Dan: morning");
+
+        assertTrue(format.isDayFirst());
+        assertEquals("dd.MM.yy", format.getPattern());
+        assertEquals(LocalDate.of(2024, 4, 3), epochDay(format, "03.04.24"));
+    }
+
+    @Test
+    void majorityOfUnambiguousDatesDecides() throws IOException {
+        ChatDateFormat format = detect(
+                "12/13/24, 10:00 - Dan: one",
+                "13/12/24, 10:00 - Dan: two",
+                "14/12/24, 10:00 - Dan: three");
+
+        assertTrue(format.isDayFirst());
+    }
+
+    @Test
+    void fourDigitYearsAreRecognised() throws IOException {
+        ChatDateFormat format = detect("[13.01.2024, 10:00:00] Dan: morning");
+
+        assertEquals("dd.MM.yyyy", format.getPattern());
+        assertEquals(LocalDate.of(2024, 1, 13), epochDay(format, "13.01.2024"));
+    }
+
+    @Test
+    void impossibleDateIsInvalid() throws IOException {
+        ChatDateFormat format = detect("13/01/24, 10:00 - Dan: morning");
+
+        assertEquals(ChatDateFormat.INVALID, format.toEpochDay("31/02/24", 0, 8));
+        assertEquals(ChatDateFormat.INVALID, format.toEpochDay("01/13/24", 0, 8));
+    }
+
+    @Test
+    void withoutHeadersEachTokenFallsBackOnItsSeparator() throws IOException {
+        ChatDateFormat format = detect("no messages here", "");
+
+        assertEquals(0, format.getSampledDates());
+        assertEquals("unknown (no message dates found)", format.toString());
+        assertEquals(LocalDate.of(2024, 4, 3), epochDay(format, "03.04.24"));
+        assertEquals(LocalDate.of(2024, 3, 4), epochDay(format, "03/04/24"));
+    }
+
+    @Test
+    void copyParsesTheSameLayout() throws IOException {
+        ChatDateFormat format = detect("13/01/24, 10:00 - Dan: morning");
+
+        assertEquals(epochDay(format, "02/03/24"), epochDay(format.copy(), "02/03/24"));
+    }
+
+    private static ChatDateFormat detect(String... lines) throws IOException {
+        return ChatDateFormat.detect(new BufferedReader(new StringReader(String.join("\n", lines))));
+    }
+
+    private static LocalDate epochDay(ChatDateFormat format, String token) {
+        return LocalDate.ofEpochDay(format.toEpochDay(token, 0, token.length()));
+    }
+}
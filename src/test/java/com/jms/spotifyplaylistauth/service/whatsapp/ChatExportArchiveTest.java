@@ -0,0 +1,107 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatExportArchiveTest {
+
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    @Test
+    void detectsZipWithoutMovingTheStream() throws IOException {
+        InputStream zip = new BufferedInputStream(new ByteArrayInputStream(zip("_chat.txt", "chat")));
+        InputStream text = new BufferedInputStream(new ByteArrayInputStream(bytes("12/01/24, 19:30 - Dan: hi")));
+
+        assertTrue(ChatExportArchive.isZip(zip));
+        assertEquals('P', zip.read());
+        assertFalse(ChatExportArchive.isZip(text));
+        assertEquals('1', text.read());
+    }
+
+    @Test
+    void iosChatIsPreferredOverOtherTextFiles() throws IOException {
+        byte[] archive = zip("notes.txt", "notes", "WhatsApp Chat with JMS.txt", "android", "JMS/_chat.txt", "ios");
+        assertEquals("ios", readChat(archive));
+    }
+
+    @Test
+    void androidChatIsPreferredOverOtherTextFilesListedBeforeIt() throws IOException {
+        byte[] archive = zip("notes.txt", "notes", "IMG-001.jpg", "jpeg", "WhatsApp Chat with JMS.txt", "android");
+        assertEquals("android", readChat(archive));
+    }
+
+    @Test
+    void singleOtherTextFileIsTheFallback() throws IOException {
+        byte[] archive = zip("IMG-001.jpg", "jpeg", "chat.txt", "exported", "__MACOSX/._chat.txt", "resource fork");
+        assertEquals("exported", readChat(archive));
+    }
+
+    @Test
+    void severalUnnamedTextFilesAreRejected() {
+        byte[] archive = zip("a.txt", "a", "b.txt", "b");
+        assertThrows(IOException.class, () -> readChat(archive));
+    }
+
+    @Test
+    void archiveWithoutTextIsRejected() {
+        byte[] archive = zip("IMG-001.jpg", "jpeg", ".hidden.txt", "hidden", "__MACOSX/._chat.txt", "resource fork");
+        assertThrows(IOException.class, () -> readChat(archive));
+    }
+
+    @Test
+    void chatLargerThanTheLimitIsRejected() throws IOException {
+        byte[] archive = zip("_chat.txt", "x".repeat(1000));
+        try (InputStream chat = ChatExportArchive.openChatEntry(new ByteArrayInputStream(archive),
+                () -> new ByteArrayInputStream(archive), 100)) {
+            assertThrows(IOException.class, chat::readAllBytes);
+        }
+    }
+
+    @Test
+    void mediaPassedOverCountsAgainstTheLimit() {
+        byte[] archive = zip("IMG-001.jpg", "0".repeat(100_000), "_chat.txt", "chat");
+        assertTrue(archive.length < 1000);
+
+        assertThrows(IOException.class, () -> ChatExportArchive.openChatEntry(new ByteArrayInputStream(archive),
+                () -> new ByteArrayInputStream(archive), 1000));
+    }
+
+    private static String readChat(byte[] archive) throws IOException {
+        try (InputStream chat = ChatExportArchive.openChatEntry(new ByteArrayInputStream(archive),
+                () -> new ByteArrayInputStream(archive), NO_LIMIT)) {
+            return new String(chat.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Entries as name, content pairs
+    private static byte[] zip(String... entries) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(bytes(entries[i + 1]));
+                zip.closeEntry();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WhatsAppHeaderScannerTest {
+
+    private static final List<String> LINES = List.of(
+            // Android, 24h and 12h, 2- and 4-digit years
+            "2/16/24, 07:44 - Dan: https://open.spotify.com/track/abc?si=1",
+            "16/02/2024, 19:05 - Sam Smith: tune for Friday",
+            "2/16/24, 7:44 PM - Dan: evening",
+            "2/16/2024, 12:01 AM - +44 7999 431700: late one",
+            // iOS, with seconds, 24h and 12h, dotted and slashed dates
+            "[16.02.24, 15:22:10] Dan: spotify:track:zzz",
+            "[16.02.2024, 15:22:10] Sam: four digit year",
+            "[2/16/24, 3:22:10 PM] Dan: twelve hour",
+            "[16/02/24, 09:00] Alex: no seconds",
+            // iOS marks media and edits with a left-to-right mark
+            "\u200e[16.02.24, 15:23:00] Dan: \u200eimage omitted",
+            "[16.02.24, 15:23:01] Dan: \u200eThis message was edited",
+            "\u200e2/16/24, 07:45 - Dan: attached",
+            // Newer exports put a narrow no-break space before AM/PM
+            "[2/16/24, 3:22:10\u202fPM] Dan: narrow space",
+            // Content with colons, and authors next to the separator
+            "[16.02.24, 15:24:00] Dan: re: the playlist",
+            "2/16/24, 07:46 -: no author",
+            "2/16/24, 07:46 - Dan:  two spaces",
+            // Not headers
+            "2/16/24, 07:47 - Messages and calls are end-to-end encrypted.",
+            "2/16/24, 07:48 - Dan:",
+            "2/16/24, 07:48 - Dan: ",
+            "2/16/24, 07:48 - Dan:x",
+            "2/16/24 07:49 - Dan: no comma is fine",
+            "2/16/24,07:49 - Dan: no space is not",
+            "216/24, 07:50 - Dan: bad day",
+            "2/16/2, 07:50 - Dan: short year",
+            "2/16/20245, 07:50 - Dan: long year",
+            "2/16/24, 7:5 - Dan: short minutes",
+            "a continuation line: with a colon",
+            "",
+            "   ");
+
+    @Test
+    void agreesWithTheOldMessagePattern() {
+        List<String> expected = WhatsAppHeaderScanComparison.parseWithRegex(LINES);
+
+        assertEquals(expected, WhatsAppHeaderScanComparison.parseWithScanner(LINES, new WhatsAppHeaderScanner()));
+    }
+
+    @Test
+    void agreesOnGeneratedChat() {
+        assertEquals(true, WhatsAppHeaderScanComparison.compare(2000, 0).get("sameResult"));
+    }
+
+    @Test
+    void offsetsPointAtTheHeaderFields() {
+        WhatsAppHeaderScanner scanner = new WhatsAppHeaderScanner();
+        String android = "2/16/24, 7:44 PM - Dan: evening";
+        String ios = "[16.02.2024, 15:22:10] Sam Smith : tune";
+
+        assertTrue(scanner.scan(android));
+        assertEquals("2/16/24", android.substring(scanner.dateStart, scanner.dateEnd));
+        assertEquals("7:44", android.substring(scanner.timeStart, scanner.timeEnd));
+        // The old pattern also read "PM - Dan" as the author of 12-hour Android lines
+        assertEquals("PM - Dan", android.substring(scanner.authorStart, scanner.authorEnd));
+        assertEquals("evening", android.substring(scanner.contentStart));
+
+        assertTrue(scanner.scan(ios));
+        assertEquals("16.02.2024", ios.substring(scanner.dateStart, scanner.dateEnd));
+        assertEquals("15:22:10", ios.substring(scanner.timeStart, scanner.timeEnd));
+        assertEquals("Sam Smith", ios.substring(scanner.authorStart, scanner.authorEnd));
+        assertEquals("tune", ios.substring(scanner.contentStart));
+    }
+
+    @Test
+    void leftToRightMarkBeforeTheHeaderIsNotAHeader() {
+        assertFalse(new WhatsAppHeaderScanner().scan("\u200e[16.02.24, 15:23:00] Dan: \u200eimage omitted"));
+    }
+}
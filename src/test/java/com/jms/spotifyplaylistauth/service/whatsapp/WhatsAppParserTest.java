@@ -0,0 +1,68 @@
+package com.jms.spotifyplaylistauth.service.whatsapp;
+
+import com.jms.spotifyplaylistauth.dto.WhatsAppMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WhatsAppParserTest {
+
+    @Test
+    void parallelParseKeepsFileOrderLikeTheSequentialParse() throws IOException {
+        // Out of order dates, as in a chat merged from a restored backup; only the date is kept
+        StringBuilder chat = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            chat.append("2/").append(1 + (i * 11) % 28).append("/24, 07:44")
+                    .append(" - Sender ").append(i).append(": message ").append(i).append('\n');
+            if (i % 7 == 0) {
+                chat.append("second line of ").append(i).append('\n');
+            }
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "chat.txt", "text/plain",
+                chat.toString().getBytes(StandardCharsets.UTF_8));
+
+        WhatsAppParser parallelParser = parser(1);
+        List<String> sequential = describe(parser(0).parseWhatsAppChatExport(file));
+        List<String> parallel = describe(parallelParser.parseWhatsAppChatExport(file));
+        parallelParser.shutdown();
+
+        assertEquals(400, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void shuttingOneParserDownLeavesOthersWorking() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "chat.txt", "text/plain",
+                "2/16/24, 07:44 - Dan: hi\n2/23/24, 07:44 - Sam: hello\n".getBytes(StandardCharsets.UTF_8));
+        WhatsAppParser first = parser(1);
+        WhatsAppParser second = parser(1);
+        WhatsAppParser unused = parser(1);
+
+        assertEquals(2, first.parseWhatsAppChatExport(file).size());
+        first.shutdown();
+        unused.shutdown();
+
+        assertEquals(2, second.parseWhatsAppChatExport(file).size());
+        second.shutdown();
+    }
+
+    private static WhatsAppParser parser(long parallelThresholdBytes) {
+        WhatsAppParser parser = new WhatsAppParser();
+        ReflectionTestUtils.setField(parser, "parallelism", 4);
+        ReflectionTestUtils.setField(parser, "parallelThresholdBytes", parallelThresholdBytes);
+        ReflectionTestUtils.setField(parser, "maxUnzippedBytes", Long.MAX_VALUE);
+        return parser;
+    }
+
+    private static List<String> describe(List<WhatsAppMessage> messages) {
+        return messages.stream()
+                .map(message -> message.getTimestamp() + "|" + message.getSender() + "|" + message.getContent())
+                .toList();
+    }
+}